@@ -0,0 +1,69 @@
+package haxlike.benchmarks;
+
+import static haxlike.Nodes.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.EngineCache;
+import haxlike.EngineCaches;
+import haxlike.resolvers.Resolver;
+import haxlike.resolvers.Results;
+import haxlike.resolvers.impl.ResolvableValue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Resolution of a wide tree against a cache already containing the given
+ * percentage of its resolvables. Every invocation fills a fresh cache, so
+ * the cost of filling it is included in all results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheBenchmark {
+    private static final Resolver<Object, Integer, Integer> Identity = Resolver.declare(
+        "Identity",
+        (List<Integer> values) -> values
+    );
+
+    @Param({ "1000" })
+    int width;
+
+    @Param({ "0", "50", "90", "100" })
+    int hitRatio;
+
+    private Engine engine;
+    private List<ResolvableValue<Integer, Integer>> resolvables;
+    private Results<ResolvableValue<Integer, Integer>, Integer> cached;
+
+    @Setup
+    public void setUp() {
+        engine = Engine.builder().withResolver(Identity).build(null);
+        resolvables = List.range(0, width).map(Identity::fetch);
+
+        final int hits = width * hitRatio / 100;
+        cached = Results.zip(resolvables.take(hits), List.range(0, hits));
+    }
+
+    @Benchmark
+    public List<Integer> defaultCache() {
+        return resolve(EngineCaches.defaultCache());
+    }
+
+    @Benchmark
+    public List<Integer> boundedCache() {
+        return resolve(EngineCaches.bounded().build());
+    }
+
+    private List<Integer> resolve(EngineCache cache) {
+        cache.update(cached);
+        return engine.resolve(list(resolvables.map(r -> r)), cache);
+    }
+}
@@ -0,0 +1,96 @@
+package haxlike.benchmarks;
+
+import static haxlike.Nodes.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.Node;
+import haxlike.resolvers.Resolver;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Engine overhead for different tree shapes. Resolvers return immediately,
+ * so the results reflect the cost of collecting resolvables, batching and
+ * injecting values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EngineBenchmark {
+    private static final Resolver<Object, Integer, Integer> Identity = Resolver.declare(
+        "Identity",
+        (List<Integer> values) -> values
+    );
+
+    @Param({ "10000" })
+    int width;
+
+    @Param({ "64" })
+    int depth;
+
+    private Engine engine;
+
+    @Setup
+    public void setUp() {
+        engine =
+            Engine
+                .builder()
+                .withResolver(Identity)
+                .withMaxIterationCount(depth + 1)
+                .build(null);
+    }
+
+    /**
+     * A single {@code CollectionNode} with many independent children,
+     * resolved in a single iteration.
+     */
+    @Benchmark
+    public List<Integer> wideCollection() {
+        return engine.resolve(list(List.range(0, width).map(Identity::fetch)));
+    }
+
+    /**
+     * A chain of dependent {@code flatMap} calls, resolved in one iteration
+     * per step.
+     */
+    @Benchmark
+    public Integer deepFlatMap() {
+        Node<Integer> node = Identity.fetch(0);
+        for (int i = 0; i < depth; i++) {
+            node = node.flatMap(x -> Identity.fetch(x + 1));
+        }
+        return engine.resolve(node);
+    }
+
+    /**
+     * Four wide branches joined in a single {@code Tuple4}, each element
+     * depending on the result of the previous iteration.
+     */
+    @Benchmark
+    public Integer tuple4FanIn() {
+        final int size = width / 4;
+        return engine.resolve(
+            tuple(
+                branch(0, size),
+                branch(size, size),
+                branch(2 * size, size),
+                branch(3 * size, size)
+            )
+                .map((a, b, c, d) -> a + b + c + d)
+        );
+    }
+
+    private static Node<Integer> branch(int offset, int size) {
+        return list(List.range(offset, offset + size).map(Identity::fetch))
+            .flatMapEach(x -> Identity.fetch(x + 1))
+            .foldLeft(Integer::sum, 0);
+    }
+}
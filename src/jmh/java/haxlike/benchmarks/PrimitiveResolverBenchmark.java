@@ -0,0 +1,84 @@
+package haxlike.benchmarks;
+
+import fj.data.List;
+import haxlike.resolvers.IntResolver;
+import haxlike.resolvers.LongResults;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Resolver;
+import haxlike.resolvers.Results;
+import haxlike.resolvers.impl.PrimitiveResolvable;
+import haxlike.resolvers.impl.ResolvableValue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Batch of integer ids resolved by a boxed and a primitive-keyed resolver,
+ * both matching unordered results by id. Measures creating the operation,
+ * running it and looking up every resolvable in its results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrimitiveResolverBenchmark {
+    private static final Resolver<Object, Integer, Integer> Boxed = Resolver.declare(
+        "Boxed",
+        (List<Integer> ids) -> Results.match(ids, ids.reverse(), id -> id)
+    );
+
+    private static final IntResolver<Object, Integer> Primitive = Resolver.declareInt(
+        "Primitive",
+        (int[] ids) -> LongResults.match(ids, reversed(ids), id -> id)
+    );
+
+    @Param({ "10000" })
+    int size;
+
+    private List<ResolvableValue<Integer, Integer>> boxedBatch;
+    private List<PrimitiveResolvable<Integer>> primitiveBatch;
+
+    @Setup
+    public void setUp() {
+        boxedBatch = List.range(0, size).map(Boxed::fetch);
+        primitiveBatch = List.range(0, size).map(Primitive::fetch);
+    }
+
+    @Benchmark
+    public long boxed() {
+        return lookup(Boxed.createOperations(null, boxedBatch), boxedBatch);
+    }
+
+    @Benchmark
+    public long primitive() {
+        return lookup(
+            Primitive.createOperations(null, primitiveBatch),
+            primitiveBatch
+        );
+    }
+
+    private static <R> long lookup(
+        List<Operation<R, Integer>> ops,
+        List<R> batch
+    ) {
+        final Results<R, Integer> results = ops.head().runOperation();
+        long sum = 0;
+        for (R r : batch) {
+            sum += results.getSome(r);
+        }
+        return sum;
+    }
+
+    private static List<Integer> reversed(int[] ids) {
+        List<Integer> result = List.nil();
+        for (int id : ids) {
+            result = result.cons(id);
+        }
+        return result;
+    }
+}
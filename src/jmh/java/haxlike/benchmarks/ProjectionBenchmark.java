@@ -0,0 +1,106 @@
+package haxlike.benchmarks;
+
+import static haxlike.Nodes.*;
+import static haxlike.projections.Projection.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.Node;
+import haxlike.projections.Projection;
+import haxlike.relations.Relation;
+import haxlike.resolvers.ListResolver;
+import haxlike.resolvers.Resolver;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import lombok.With;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Nested {@code selectList} projections: users with their posts, each post
+ * with its author and their posts again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionBenchmark {
+
+    @Value
+    public static class User {
+        int id;
+
+        @With
+        List<Post> posts;
+
+        static final Relation<User, List<Post>> POSTS = PostsByUser.relation(
+            User::withPosts,
+            User::getId
+        );
+    }
+
+    @Value
+    public static class Post {
+        int id;
+        int authorId;
+
+        @With
+        User author;
+
+        static final Relation<Post, User> AUTHOR = UserById.relation(
+            Post::withAuthor,
+            Post::getAuthorId
+        );
+    }
+
+    static final Resolver<Object, Integer, User> UserById = Resolver.declare(
+        "User",
+        (List<Integer> ids) -> ids.map(id -> new User(id, null))
+    );
+
+    static final ListResolver<Object, Integer, Post> PostsByUser = ListResolver.declare(
+        "PostsByUser",
+        (List<Integer> ids) ->
+            ids.map(
+                id ->
+                    List
+                        .range(0, 10)
+                        .map(i -> new Post(i, (id + i) % 100, null))
+            )
+    );
+
+    @Param({ "100" })
+    int users;
+
+    private Engine engine;
+    private Projection<List<User>> projection;
+
+    @Setup
+    public void setUp() {
+        engine =
+            Engine
+                .builder()
+                .withResolver(UserById)
+                .withResolver(PostsByUser)
+                .build(null);
+        projection =
+            selectList(
+                User.POSTS,
+                select(Post.AUTHOR, selectList(User.POSTS, select(Post.AUTHOR)))
+            )
+                .list();
+    }
+
+    @Benchmark
+    public List<User> nestedSelectList() {
+        final Node<List<User>> node = list(
+            List.range(0, users).map(UserById::fetch)
+        );
+        return engine.resolve(node, projection);
+    }
+}
@@ -0,0 +1,108 @@
+package haxlike.impl;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.EngineBuilder;
+import haxlike.EngineCaches;
+import haxlike.EngineListener;
+import haxlike.Node;
+import haxlike.Nodes;
+import haxlike.ResolutionStrategies;
+import haxlike.Resolvable;
+import haxlike.SelectionStrategies;
+import haxlike.resolvers.Resolver;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of the engine's logging hooks, both in isolation for a single
+ * iteration and as part of a full resolution. With trace logging disabled,
+ * either by using the no-op logger or by the SLF4J level, the GC profiler
+ * should report {@code gc.alloc.rate.norm} of 0 bytes per operation for the
+ * former, and the same allocations for both loggers for the latter.
+ * <p>
+ * This lives in the {@code impl} package since the hooks are internal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingBenchmark {
+    private static final Resolver<Object, Integer, Integer> Identity = Resolver.declare(
+        "Identity",
+        (List<Integer> values) -> values
+    );
+
+    @Param({ "noop", "slf4j" })
+    String logger;
+
+    @Param({ "1000" })
+    int size;
+
+    private EngineImpl<Object> engine;
+    private Engine resolvingEngine;
+    private List<Key> resolvables;
+    private List<List<Key>> batches;
+    private List<Node<Integer>> nodes;
+
+    @Setup
+    public void setUp() {
+        engine =
+            EngineImpl
+                .builder()
+                .logger(
+                    "slf4j".equals(logger)
+                        ? new EngineLogger.Slf4j()
+                        : new EngineLogger.NoOp()
+                )
+                .registry(new EngineRegistry<>())
+                .resolutionStrategy(ResolutionStrategies.defaultStrategy())
+                .selectionStrategy(SelectionStrategies.defaultStrategy())
+                .maxIterationCount(16)
+                .inFlightRegistry(InFlightRegistry.disabled())
+                .refreshExecutor(Runnable::run)
+                .listener(EngineListener.NONE)
+                .build();
+        resolvables = List.range(0, size).map(Key::new);
+        batches = List.list(resolvables, resolvables, resolvables);
+
+        final EngineBuilder<Object> builder = Engine
+            .builder()
+            .withResolver(Identity);
+        resolvingEngine =
+            "slf4j".equals(logger)
+                ? builder.withTraceLogging().build(null)
+                : builder.build(null);
+        nodes = List.range(0, size).map(Identity::fetch);
+    }
+
+    @Benchmark
+    public void iteration(Blackhole bh) {
+        engine.logIteration(size);
+        bh.consume(engine.logResolvables(resolvables));
+        bh.consume(engine.logUncachedResolvables(resolvables));
+        bh.consume(engine.logBatches(batches));
+        engine.notifyIteration(size, resolvables);
+    }
+
+    @Benchmark
+    public List<Integer> resolve() {
+        return resolvingEngine.resolve(
+            Nodes.list(nodes),
+            EngineCaches.defaultCache()
+        );
+    }
+
+    @Value
+    static class Key implements Resolvable<Integer> {
+        int id;
+    }
+}
@@ -0,0 +1,24 @@
+package haxlike;
+
+import haxlike.resolvers.Operation;
+
+/**
+ * A bulkhead limits the number of operations of a resolver that may run
+ * concurrently, optionally running them on a dedicated executor. This keeps a
+ * slow backend from occupying all threads of the {@link ResolutionStrategy}
+ * and starving other resolvers.
+ * <p>
+ * A single bulkhead may be shared by multiple engines and resolvers, in which
+ * case the limit applies to all of them together.
+ */
+public interface Bulkhead {
+    /**
+     * Wrap the given operation so it only runs once the bulkhead admits it.
+     * Waiting for admission does not block any thread.
+     * @param <R> resolvable class
+     * @param <V> resolvable value class
+     * @param op operation to wrap
+     * @return an asynchronous operation respecting the bulkhead's limit
+     */
+    <R, V> Operation.Async<R, V> decorate(Operation<R, V> op);
+}
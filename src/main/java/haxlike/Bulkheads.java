@@ -0,0 +1,75 @@
+package haxlike;
+
+import haxlike.strategies.AdaptiveBulkhead;
+import haxlike.strategies.LimitBulkhead;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import lombok.NonNull;
+
+/**
+ * Predefined {@link Bulkhead} implementations.
+ */
+public final class Bulkheads {
+
+    /**
+     * Create a bulkhead admitting up to the given number of concurrent
+     * operations, running them on the threads admitting them.
+     * @param limit maximum number of concurrent operations
+     * @return a bulkhead
+     */
+    public static Bulkhead limit(int limit) {
+        return new LimitBulkhead(limit, null);
+    }
+
+    /**
+     * Create a bulkhead admitting up to the given number of concurrent
+     * operations, running blocking operations on the given executor.
+     * @param limit maximum number of concurrent operations
+     * @param executor dedicated executor for blocking operations
+     * @return a bulkhead
+     */
+    public static Bulkhead limit(int limit, @NonNull Executor executor) {
+        return new LimitBulkhead(limit, executor);
+    }
+
+    /**
+     * Create a bulkhead whose limit adapts to the observed latency, staying
+     * within the given bounds. It starts with the minimum limit.
+     * @param minLimit minimum number of concurrent operations
+     * @param maxLimit maximum number of concurrent operations
+     * @param latencyTarget latency above which the limit is reduced
+     * @return a bulkhead
+     */
+    public static Bulkhead adaptive(
+        int minLimit,
+        int maxLimit,
+        @NonNull Duration latencyTarget
+    ) {
+        return new AdaptiveBulkhead(minLimit, maxLimit, latencyTarget, null);
+    }
+
+    /**
+     * Like {@link #adaptive(int, int, Duration)}, but running blocking
+     * operations on the given executor.
+     * @param minLimit minimum number of concurrent operations
+     * @param maxLimit maximum number of concurrent operations
+     * @param latencyTarget latency above which the limit is reduced
+     * @param executor dedicated executor for blocking operations
+     * @return a bulkhead
+     */
+    public static Bulkhead adaptive(
+        int minLimit,
+        int maxLimit,
+        @NonNull Duration latencyTarget,
+        @NonNull Executor executor
+    ) {
+        return new AdaptiveBulkhead(
+            minLimit,
+            maxLimit,
+            latencyTarget,
+            executor
+        );
+    }
+
+    private Bulkheads() {}
+}
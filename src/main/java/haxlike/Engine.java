@@ -1,7 +1,9 @@
 package haxlike;
 
+import fj.data.List;
 import haxlike.impl.EngineBuilderImpl;
 import haxlike.projections.Projection;
+import java.util.concurrent.CompletableFuture;
 
 public interface Engine {
     <T> T resolve(Node<T> node, EngineCache cache);
@@ -14,6 +16,59 @@ public interface Engine {
         return resolve(projection.project(node));
     }
 
+    /**
+     * Resolve the given node asynchronously. Asynchronous operations (see
+     * {@link haxlike.resolvers.Operation.Async}) are composed directly, while
+     * blocking ones are handed to the engine's
+     * {@link ResolutionStrategy#runAsync(fj.data.List)}.
+     * <p>
+     * This only avoids blocking threads if the resolution strategy runs
+     * blocking operations on an executor, e.g.
+     * {@link ResolutionStrategies#executorServiceStrategy}, or if all
+     * resolvers are asynchronous. With the default strategy, blocking
+     * operations run on the calling thread for the first iteration, and on
+     * the thread completing the previous iteration afterwards.
+     * @param <T> value class
+     * @param node node to resolve
+     * @param cache cache to use for this resolution
+     * @return a future of the node's value
+     */
+    <T> CompletableFuture<T> resolveAsync(Node<T> node, EngineCache cache);
+
+    default <T> CompletableFuture<T> resolveAsync(Node<T> node) {
+        return resolveAsync(node, EngineCaches.defaultCache());
+    }
+
+    default <T> CompletableFuture<T> resolveAsync(
+        Node<T> node,
+        Projection<T> projection
+    ) {
+        return resolveAsync(projection.project(node));
+    }
+
+    /**
+     * Resolve the given resolvables in the background and store their values
+     * in the given cache, e.g. to fill a shared cache before traffic arrives.
+     * Resolvables are grouped by resolver and fetched in chunks of at most the
+     * given size, one chunk at a time, so warming does not overload backends.
+     * Resolvables that are already cached are skipped.
+     * <p>
+     * Chunks run on the executor set via
+     * {@link EngineBuilder#withRefreshExecutor(java.util.concurrent.Executor)}.
+     * A failing chunk does not stop the remaining ones; once all chunks have
+     * run, the returned future fails with the first failure, the others being
+     * attached as suppressed exceptions.
+     * @param resolvables resolvables to fetch
+     * @param cache cache to fill
+     * @param chunkSize maximum number of resolvables fetched at once
+     * @return a future of the number of values stored in the cache
+     */
+    CompletableFuture<Integer> warm(
+        List<? extends Resolvable<?>> resolvables,
+        EngineCache cache,
+        int chunkSize
+    );
+
     /**
      * Create a fresh {@link EngineBuilder} for the given environment class.
      * @param <E> class of the environment
@@ -2,8 +2,13 @@ package haxlike;
 
 import haxlike.resolvers.ResolverDefinition;
 import haxlike.resolvers.ResolverFunction;
+import haxlike.tracing.ResolutionTrace;
+import haxlike.tracing.ResolutionTracer;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * An engine builder for customisation of resolution strategy and
@@ -24,6 +29,22 @@ public interface EngineBuilder<E> {
         ResolverDefinition<? super E, R, V> resolver
     );
 
+    /**
+     * Register a new resolver definition, splitting batches into chunks of
+     * at most the given size. See {@link ResolverDefinition#withMaxBatchSize}.
+     * @param <V> value class
+     * @param <R> resolvable class producing the value
+     * @param resolver resolver definition to register
+     * @param maxBatchSize maximum number of resolvables per operation
+     * @return a new EngineBuilder that has the resolver definition registered
+     */
+    default <V, R extends Resolvable<V>> EngineBuilder<E> withResolver(
+        ResolverDefinition<? super E, R, V> resolver,
+        int maxBatchSize
+    ) {
+        return this.withResolver(resolver.withMaxBatchSize(maxBatchSize));
+    }
+
     /**
      * Set the {@link SelectionStrategy} to steer order of resolution.
      * By default, all available batches are selected using
@@ -50,6 +71,127 @@ public interface EngineBuilder<E> {
      */
     EngineBuilder<E> withMaxIterationCount(int depth);
 
+    /**
+     * Set the executor used to refresh stale cache entries in the background,
+     * see {@link EngineCache#drainStale()}, and to warm caches, see
+     * {@link Engine#warm(fj.data.List, EngineCache, int)}. By default, the
+     * common fork-join pool is used.
+     * @param executor executor to run refreshes on
+     * @return a new EngineBuilder with the refresh executor applied
+     */
+    EngineBuilder<E> withRefreshExecutor(Executor executor);
+
+    /**
+     * Switch the engine to pipelined resolution. Instead of waiting for all
+     * batches of an iteration to complete, results are injected as soon as
+     * a single operation has finished. Resolvables exposed that way are
+     * collected for the given coalescing window before they are batched and
+     * dispatched, so a slow resolver no longer holds up unrelated parts of
+     * the tree.
+     * <p>
+     * Pipelining only pays off if operations actually run concurrently, i.e.
+     * with asynchronous resolvers or a parallel {@link ResolutionStrategy}.
+     * The maximum iteration count applies to the longest chain of dependent
+     * dispatches.
+     * @param coalescingWindow time to wait for further results before
+     * dispatching newly exposed resolvables; may be {@link Duration#ZERO}
+     * @return a new EngineBuilder with pipelined resolution enabled
+     */
+    EngineBuilder<E> withPipelining(Duration coalescingWindow);
+
+    /**
+     * Coalesce requests across concurrent resolutions using the same engine.
+     * Resolvables that are currently being fetched by another resolution are
+     * not fetched again; instead, the resolution waits for the pending result.
+     * If that fetch fails or does not produce a value, the resolvable is
+     * fetched again in the next iteration.
+     * @return a new EngineBuilder with request coalescing enabled
+     */
+    EngineBuilder<E> withRequestCoalescing();
+
+    /**
+     * Collect the batches of all concurrent resolutions of this engine for the
+     * resolver with the given key, and resolve them with a single call once
+     * the given time window has passed or the given number of resolvables
+     * has been collected, whichever comes first.
+     * @param resolvableKey key of a registered resolver
+     * @param window time to collect batches for
+     * @param maxSize number of resolvables after which to flush the window
+     * early
+     * @return a new EngineBuilder with the batch window applied
+     */
+    EngineBuilder<E> withBatchWindow(
+        String resolvableKey,
+        Duration window,
+        int maxSize
+    );
+
+    /**
+     * Shorthand for {@link #withBatchWindow(String, Duration, int)} using
+     * the key of the given resolver.
+     * @param resolver resolver to apply the batch window to
+     * @param window time to collect batches for
+     * @param maxSize number of resolvables after which to flush the window
+     * early
+     * @return a new EngineBuilder with the batch window applied
+     */
+    default EngineBuilder<E> withBatchWindow(
+        ResolverDefinition<?, ?, ?> resolver,
+        Duration window,
+        int maxSize
+    ) {
+        return withBatchWindow(resolver.getResolvableKey(), window, maxSize);
+    }
+
+    /**
+     * Run all operations of the given resolver through a {@link Bulkhead},
+     * limiting how many of them may run concurrently. See {@link Bulkheads}
+     * for available implementations. Bulkheads may be shared between
+     * resolvers and engines.
+     * @param resolvableKey key of the resolver to limit
+     * @param bulkhead bulkhead to apply
+     * @return a new EngineBuilder with the bulkhead applied
+     */
+    EngineBuilder<E> withBulkhead(String resolvableKey, Bulkhead bulkhead);
+
+    /**
+     * Shorthand for {@link #withBulkhead(String, Bulkhead)} using the key of
+     * the given resolver.
+     * @param resolver resolver to limit
+     * @param bulkhead bulkhead to apply
+     * @return a new EngineBuilder with the bulkhead applied
+     */
+    default EngineBuilder<E> withBulkhead(
+        ResolverDefinition<?, ?, ?> resolver,
+        Bulkhead bulkhead
+    ) {
+        return withBulkhead(resolver.getResolvableKey(), bulkhead);
+    }
+
+    /**
+     * Register a listener notified about every resolution of the engine, e.g.
+     * {@link haxlike.metrics.EngineMetrics}. Multiple listeners are notified
+     * in the order they were registered.
+     * @param listener listener to register
+     * @return a new EngineBuilder with the listener registered
+     */
+    EngineBuilder<E> withListener(EngineListener listener);
+
+    /**
+     * Record a {@link ResolutionTrace} for the given ratio of resolutions,
+     * e.g. to export them as Chrome traces or flame graphs. See
+     * {@link ResolutionTracer}.
+     * @param sampleRate ratio of resolutions to trace, between 0 and 1
+     * @param consumer consumer of completed traces
+     * @return a new EngineBuilder with tracing enabled
+     */
+    default EngineBuilder<E> withTracing(
+        double sampleRate,
+        Consumer<ResolutionTrace> consumer
+    ) {
+        return withListener(new ResolutionTracer(sampleRate, consumer));
+    }
+
     /**
      * Enable TRACE logging (via Slf4j) on the engine.
      * @return a new engine builder that will log using the TRACE log level
@@ -190,4 +332,34 @@ public interface EngineBuilder<E> {
     ) {
         return this.withResolverFunction(cls, resolver);
     }
+
+    /**
+     * Register a new asynchronous resolver (batched)
+     * @param <V> value class
+     * @param <R> resolvable class producing the value
+     * @param cls resolvable class to register
+     * @param resolver resolver to register
+     * @return a new EngineBuilder that has the resolver registered
+     */
+    default <V, R extends Resolvable<V>> EngineBuilder<E> withAsyncResolver(
+        Class<R> cls,
+        ResolverFunction.BatchedAsync<? super E, R, V> resolver
+    ) {
+        return this.withResolverFunction(cls, resolver);
+    }
+
+    /**
+     * Register a new asynchronous resolver (batched)
+     * @param <V> value class
+     * @param <R> resolvable class producing the value
+     * @param cls resolvable class to register
+     * @param resolver resolver to register
+     * @return a new EngineBuilder that has the resolver registered
+     */
+    default <V, R extends Resolvable<V>> EngineBuilder<E> withAsyncResolver(
+        Class<R> cls,
+        ResolverFunction.BatchedAsyncNoEnv<R, V> resolver
+    ) {
+        return this.withResolverFunction(cls, resolver);
+    }
 }
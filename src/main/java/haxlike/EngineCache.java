@@ -6,19 +6,40 @@ import haxlike.resolvers.Results;
 @SuppressWarnings("squid:S1452")
 public interface EngineCache {
     /**
-     * Remove cached resolvables from the list of resolvables.
+     * Look up the given resolvables in the cache. The result only contains
+     * the cached values of the given resolvables, not the whole cache, so
+     * the cost of injecting them does not grow with the size of the cache.
+     * @param <V> generic resolvable value class
+     * @param <R> generic resolvable class
+     * @param resolvables resolvables of the current iteration
+     * @return cached results for (a subset of) the given resolvables
      */
-    <R extends Resolvable<?>> List<R> removeCached(List<R> resolvables);
+    <R extends Resolvable<V>, V> Results<R, V> getCached(List<R> resolvables);
 
     /**
-     * Use the given map of results to update the internal cache, then return
-     * the full cache.
+     * Use the given results to update the internal cache.
      * @param <V> generic resolvable value class
      * @param <R> generic resolvable class
      * @param results newly calculated resolution results
-     * @return the full internal cache.
      */
-    <R extends Resolvable<V>, V> Results<R, V> updateAndGet(
-        Results<R, V> results
-    );
+    <R extends Resolvable<V>, V> void update(Results<R, V> results);
+
+    /**
+     * Return and forget the resolvables whose cached values have been served
+     * by {@link #getCached(List)} although they are due for a refresh. The
+     * engine refreshes them in the background and passes the results to
+     * {@link #update(Results)}. By default, entries are never refreshed.
+     * @return resolvables to refresh
+     */
+    default List<Resolvable<?>> drainStale() {
+        return List.nil();
+    }
+
+    /**
+     * Return resolvables obtained from {@link #drainStale()} that an engine
+     * cannot refresh, since it has no resolver for them, so they can be
+     * drained by another engine sharing this cache.
+     * @param resolvables resolvables to refresh later
+     */
+    default void restoreStale(List<Resolvable<?>> resolvables) {}
 }
@@ -1,8 +1,12 @@
 package haxlike;
 
 import fj.data.List;
+import haxlike.caches.BoundedEngineCache;
+import haxlike.caches.MappedEngineCache;
+import haxlike.caches.TieredEngineCache;
 import haxlike.impl.EngineCacheImpl;
 import haxlike.resolvers.Results;
+import java.nio.file.Path;
 
 public final class EngineCaches {
 
@@ -14,20 +18,48 @@ public final class EngineCaches {
         return new NoCache();
     }
 
+    /**
+     * Create a builder for a thread-safe cache that can be shared across
+     * resolutions, evicting entries by size, weight or time.
+     * @return builder for a bounded cache
+     */
+    public static BoundedEngineCache.Builder bounded() {
+        return BoundedEngineCache.builder();
+    }
+
+    /**
+     * Create a builder for a thread-safe cache persisting entries in
+     * memory-mapped files in the given directory, so they survive restarts.
+     * @param directory directory to store segment files in
+     * @return builder for a mapped cache
+     */
+    public static MappedEngineCache.Builder mapped(Path directory) {
+        return MappedEngineCache.builder(directory);
+    }
+
+    /**
+     * Create a builder for request caches layered over the given shared
+     * cache, e.g. a {@link BoundedEngineCache}. Call
+     * {@link TieredEngineCache.Builder#build()} once per request.
+     * @param shared cache shared across requests
+     * @return builder for tiered request caches
+     */
+    public static TieredEngineCache.Builder tiered(EngineCache shared) {
+        return TieredEngineCache.builder(shared);
+    }
+
     private static class NoCache implements EngineCache {
 
         @Override
-        public <R extends Resolvable<V>, V> Results<R, V> updateAndGet(
-            Results<R, V> results
+        public <R extends Resolvable<V>, V> Results<R, V> getCached(
+            List<R> resolvables
         ) {
-            return results;
+            return Results.empty();
         }
 
         @Override
-        public <R extends Resolvable<?>> List<R> removeCached(
-            List<R> resolvables
-        ) {
-            return resolvables;
+        public <R extends Resolvable<V>, V> void update(Results<R, V> results) {
+            // nothing is cached
         }
     }
 
@@ -0,0 +1,81 @@
+package haxlike;
+
+/**
+ * Listener notified about the steps of a resolution, e.g. to collect
+ * metrics. All callbacks default to doing nothing, so implementations only
+ * need to override the ones they are interested in.
+ * <p>
+ * Callbacks may be invoked concurrently from multiple resolutions and
+ * threads, so implementations have to be thread-safe. They should also be
+ * cheap, since they run on the resolution's critical path. See
+ * {@link haxlike.metrics.EngineMetrics} for a default implementation.
+ */
+public interface EngineListener {
+    /**
+     * Listener ignoring all events. Engines without listeners skip measuring
+     * operation latencies altogether.
+     */
+    EngineListener NONE = new EngineListener() {};
+
+    /**
+     * Called at the start of every resolution, returning the listener that
+     * receives all events of that resolution. This allows listeners to keep
+     * per-resolution state, or to ignore some resolutions altogether by
+     * returning {@link #NONE}. By default, the listener itself is used.
+     * @return listener for a single resolution
+     */
+    default EngineListener forResolution() {
+        return this;
+    }
+
+    /**
+     * Called once a resolution has completed.
+     * @param nanos duration of the resolution
+     * @param error the failure, or null if the resolution was successful
+     */
+    default void onResolution(long nanos, Throwable error) {}
+
+    /**
+     * Called at the start of every iteration, or dispatch when pipelining.
+     * @param iteration number of the iteration, starting at 1
+     * @param resolvables number of distinct unresolved resolvables
+     */
+    default void onIteration(int iteration, int resolvables) {}
+
+    /**
+     * Called after resolvables have been looked up in the cache.
+     * @param hits number of resolvables found in the cache
+     * @param misses number of resolvables that need to be fetched
+     */
+    default void onCacheLookup(int hits, int misses) {}
+
+    /**
+     * Called whenever a batch is passed to its resolver.
+     * @param resolvableKey key of the resolver
+     * @param size number of resolvables in the batch
+     */
+    default void onBatch(String resolvableKey, int size) {}
+
+    /**
+     * Called once an operation created by a resolver has completed, on the
+     * thread that ran or completed it.
+     * @param resolvableKey key of the resolver
+     * @param nanos duration of the operation
+     * @param resultCount number of values returned by the operation
+     * @param error the failure, or null if the operation was successful
+     */
+    default void onOperation(
+        String resolvableKey,
+        long nanos,
+        int resultCount,
+        Throwable error
+    ) {}
+
+    /**
+     * Called once a background refresh of stale cache entries has completed,
+     * see {@link EngineCache#drainStale()}.
+     * @param resolvables number of resolvables refreshed
+     * @param error the failure, or null if the refresh was successful
+     */
+    default void onRefresh(int resolvables, Throwable error) {}
+}
@@ -30,7 +30,10 @@ public interface Node<T> {
 
     /**
      * Retrieve a list of all resolvables (including nested ones) from the node.
-     * @return the list of resolvables.
+     * Composite nodes are expected to return every resolvable only once and
+     * to compute this list at most once per node, since the engine requests
+     * it in every iteration.
+     * @return the list of distinct resolvables.
      */
     List<Resolvable<?>> getResolvables();
 
@@ -1,8 +1,13 @@
 package haxlike;
 
 import fj.control.parallel.Strategy;
+import haxlike.strategies.ExecutorResolutionStrategy;
 import haxlike.strategies.ResolutionStrategyWrapper;
+import haxlike.strategies.StructuredResolutionStrategy;
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.NonNull;
 
 public class ResolutionStrategies {
     private static final ResolutionStrategy DEFAULT = new ResolutionStrategyWrapper(
@@ -19,14 +24,81 @@ public class ResolutionStrategies {
 
     /**
      * Resolution strategy using an {@link ExecutorService} to resolve the single
-     * elements.
+     * elements. Asynchronous resolution will not block the calling thread on
+     * any operation.
      * @param e executor to use
      * @return a resolution strategy
      */
     public static ResolutionStrategy executorServiceStrategy(
         ExecutorService e
     ) {
-        return new ResolutionStrategyWrapper(Strategy.executorStrategy(e));
+        return new ExecutorResolutionStrategy(e);
+    }
+
+    /**
+     * Resolution strategy running every operation on its own virtual thread,
+     * cancelling all remaining operations of an iteration once one of them
+     * fails. On runtimes without virtual threads (before Java 21), a cached
+     * pool of daemon threads is used instead.
+     * @return a resolution strategy
+     */
+    public static ResolutionStrategy virtualThreads() {
+        return new StructuredResolutionStrategy(VirtualThreads.EXECUTOR, null);
+    }
+
+    /**
+     * Like {@link #virtualThreads()}, but additionally failing iterations
+     * whose operations do not complete within the given deadline.
+     * @param deadline maximum duration of a single iteration
+     * @return a resolution strategy
+     */
+    public static ResolutionStrategy virtualThreads(
+        @NonNull Duration deadline
+    ) {
+        return structuredStrategy(VirtualThreads.EXECUTOR, deadline);
+    }
+
+    /**
+     * Resolution strategy running every operation on its own task of the
+     * given {@link ExecutorService}, cancelling all remaining operations of
+     * an iteration once one of them fails or the deadline has passed.
+     * @param e executor to use
+     * @param deadline maximum duration of a single iteration
+     * @return a resolution strategy
+     */
+    public static ResolutionStrategy structuredStrategy(
+        @NonNull ExecutorService e,
+        @NonNull Duration deadline
+    ) {
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException(
+                "Deadline must be positive: " + deadline
+            );
+        }
+        return new StructuredResolutionStrategy(e, deadline);
+    }
+
+    /**
+     * Lazily created executor for {@link #virtualThreads()}.
+     */
+    private static final class VirtualThreads {
+        private static final ExecutorService EXECUTOR = create();
+
+        private static ExecutorService create() {
+            try {
+                return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return Executors.newCachedThreadPool(
+                    r -> {
+                        final Thread thread = new Thread(r);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                );
+            }
+        }
     }
 
     private ResolutionStrategies() {}
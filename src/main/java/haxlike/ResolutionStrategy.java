@@ -1,8 +1,10 @@
 package haxlike;
 
 import fj.data.List;
+import haxlike.impl.Futures;
 import haxlike.resolvers.Operation;
 import haxlike.resolvers.Results;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A resolution strategy can run a series operations and return a list
@@ -11,4 +13,33 @@ import haxlike.resolvers.Results;
  */
 public interface ResolutionStrategy {
     <R, V> List<Results<R, V>> run(List<Operation<R, V>> operations);
+
+    /**
+     * Run the given operations without waiting for their results. By default,
+     * {@link Operation.Async} operations are started directly, while all other
+     * operations are passed to {@link #run(List)} on the calling thread, which
+     * is thus blocked until they have completed. Strategies backed by an
+     * executor override this to run blocking operations on the executor.
+     * @param <R> resolvable class
+     * @param <V> resolvable value class
+     * @param operations operations to run
+     * @return a future of the results of all operations
+     */
+    @SuppressWarnings("unchecked")
+    default <R, V> CompletableFuture<List<Results<R, V>>> runAsync(
+        List<Operation<R, V>> operations
+    ) {
+        final List<CompletableFuture<Results<R, V>>> started = operations
+            .filter(Operation.Async.class::isInstance)
+            .map(op -> Futures.start((Operation.Async<R, V>) op));
+        final List<Operation<R, V>> blocking = operations.filter(
+            op -> !(op instanceof Operation.Async)
+        );
+        final CompletableFuture<List<Results<R, V>>> blockingResults = CompletableFuture
+            .completedFuture(blocking)
+            .thenApply(this::run);
+        return Futures
+            .sequence(started)
+            .thenCombine(blockingResults, List::append);
+    }
 }
@@ -37,11 +37,11 @@ public interface Resolvable<T> extends Node<T> {
     @Override
     @SuppressWarnings("unchecked")
     default Node<T> injectValues(Results<Resolvable<?>, ?> results) {
-        return results
-            .get(this)
-            .map(v -> (T) v)
-            .map(Nodes::value)
-            .orSome(() -> this);
+        final Results<Resolvable<?>, T> typed =
+            (Results<Resolvable<?>, T>) results;
+        return typed.contains(this)
+            ? Nodes.value(typed.get(this).toNull())
+            : this;
     }
 
     /**
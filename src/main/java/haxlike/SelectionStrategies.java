@@ -1,5 +1,7 @@
 package haxlike;
 
+import haxlike.strategies.AdaptiveSelectionStrategy;
+import haxlike.strategies.CostBasedSelectionStrategy;
 import haxlike.strategies.DefaultSelectionStrategy;
 import haxlike.strategies.LimitSelectionStrategy;
 import haxlike.strategies.PrioritySelectionStrategy;
@@ -8,6 +10,7 @@ import haxlike.strategies.PrioritySelectionStrategy;
  * Predefined {@link SelectionStrategy} implementations.
  */
 public class SelectionStrategies {
+    private static final int DEFAULT_MIN_SAMPLES = 10;
 
     /**
      * Return the default selection strategy, always resolving all available batches.
@@ -40,6 +43,43 @@ public class SelectionStrategies {
         return new PrioritySelectionStrategy();
     }
 
+    /**
+     * Create a selection strategy that learns which resolvers are likely to
+     * receive more resolvables in later iterations, deferring them so they
+     * can be fetched with fewer round trips. See
+     * {@link CostBasedSelectionStrategy}.
+     * @return a SelectionStrategy minimising round trips
+     */
+    public static CostBasedSelectionStrategy costBasedStrategy() {
+        return costBasedStrategy(priorityStrategy());
+    }
+
+    /**
+     * Like {@link #costBasedStrategy()}, using the given priorities for
+     * resolvers that have not been observed often enough.
+     * @param priorities static ordering of resolvers
+     * @return a SelectionStrategy minimising round trips
+     */
+    public static CostBasedSelectionStrategy costBasedStrategy(
+        PrioritySelectionStrategy priorities
+    ) {
+        return new CostBasedSelectionStrategy(
+            priorities,
+            DEFAULT_MIN_SAMPLES
+        );
+    }
+
+    /**
+     * Create a selection strategy that learns the latency of every resolver
+     * depending on its batch size, and defers batches whenever that is
+     * expected to reduce the end-to-end latency of a resolution. See
+     * {@link AdaptiveSelectionStrategy}.
+     * @return a SelectionStrategy minimising latency
+     */
+    public static AdaptiveSelectionStrategy adaptive() {
+        return new AdaptiveSelectionStrategy(DEFAULT_MIN_SAMPLES);
+    }
+
     // ---
     private SelectionStrategies() {}
 }
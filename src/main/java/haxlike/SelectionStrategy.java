@@ -21,4 +21,24 @@ import fj.data.List;
  */
 public interface SelectionStrategy {
     <V, R extends Resolvable<V>> List<List<R>> select(List<List<R>> batches);
+
+    /**
+     * Called at the start of every resolution, returning the strategy that
+     * selects the batches of that resolution. This allows strategies to keep
+     * track of what has been selected before. By default, the strategy itself
+     * is used.
+     * @return selection strategy for a single resolution
+     */
+    default SelectionStrategy forResolution() {
+        return this;
+    }
+
+    /**
+     * Return a listener that is registered with every engine using this
+     * strategy, e.g. to learn from observed resolver latencies.
+     * @return listener of this strategy, {@link EngineListener#NONE} if none
+     */
+    default EngineListener getListener() {
+        return EngineListener.NONE;
+    }
 }
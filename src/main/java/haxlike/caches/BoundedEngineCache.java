@@ -0,0 +1,497 @@
+package haxlike.caches;
+
+import fj.Ord;
+import fj.data.List;
+import fj.data.Option;
+import fj.data.TreeMap;
+import haxlike.EngineCache;
+import haxlike.Resolvable;
+import haxlike.impl.ResultsImpl;
+import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.With;
+
+/**
+ * Thread-safe cache that can be shared across resolutions and engines. Entries
+ * are evicted in least-recently-used order once the maximum size or weight is
+ * exceeded, and expire a fixed time after they were written. Expiration can be
+ * configured per resolvable key, see {@link Resolvable#getResolvableKey()}.
+ * Absent resolvables, see {@link Results#isAbsent(Object)}, are cached as well
+ * and can be given a separate, usually shorter, time to live.
+ * <p>
+ * Entries can be refreshed after a soft time to live. Until they expire, they
+ * are still returned as hits, and queued for a background refresh by the
+ * engine, see {@link EngineCache#drainStale()}.
+ * <p>
+ * The cache is split into independently locked segments, each of which gets
+ * an equal share of the maximum size and weight, rounded down. The maximum is
+ * thus never exceeded, while eviction is approximate with regards to the
+ * cache as a whole. Small maximums reduce the number of segments, so every
+ * segment can hold at least one entry.
+ */
+public final class BoundedEngineCache implements EngineCache {
+    private static final int CLEANUP_INTERVAL = 64;
+
+    private final Segment[] segments;
+    private final Builder config;
+    private final ConcurrentLinkedQueue<Resolvable<?>> stale = new ConcurrentLinkedQueue<>();
+
+    private BoundedEngineCache(Builder config) {
+        this.config = config;
+        this.segments = new Segment[segmentCount(config)];
+        final long maxSize = perSegment(config.maxSize);
+        final long maxWeight = perSegment(config.maxWeight);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(this, maxSize, maxWeight);
+        }
+    }
+
+    /**
+     * Return the configured number of segments, reduced to the largest power
+     * of two not exceeding the maximum size and weight.
+     */
+    private static int segmentCount(Builder config) {
+        final long limit = Math.min(config.maxSize, config.maxWeight);
+        if (limit >= config.segmentCount) {
+            return config.segmentCount;
+        }
+        return Integer.highestOneBit((int) Math.max(1L, limit));
+    }
+
+    private long perSegment(long maximum) {
+        if (maximum == Long.MAX_VALUE) {
+            return maximum;
+        }
+        return maximum / segments.length;
+    }
+
+    /**
+     * Create a builder for a bounded cache. Without any further configuration,
+     * the cache is neither bounded by size nor by time.
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // --- EngineCache
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends Resolvable<V>, V> Results<R, V> getCached(
+        List<R> resolvables
+    ) {
+        final long now = config.clock.getAsLong();
+        final Map<R, V> hits = new HashMap<>();
+        for (R r : resolvables) {
+            segmentFor(r).get(r, now).forEach(v -> hits.put(r, (V) v));
+        }
+        return new ResultsImpl<>(hits);
+    }
+
+    @Override
+    public <R extends Resolvable<V>, V> void update(Results<R, V> results) {
+        final long now = config.clock.getAsLong();
+        results.forEach(
+            (r, value) -> {
+                final long weight = weigh(r, value);
+                final Entry entry = new Entry(
+                    value,
+                    weight,
+                    expiresAt(r, value, now),
+                    deadline(now, config.refreshAfter)
+                );
+                segmentFor(r).put(r, entry, now);
+            }
+        );
+    }
+
+    @Override
+    public List<Resolvable<?>> drainStale() {
+        List<Resolvable<?>> drained = List.nil();
+        Resolvable<?> r;
+        while ((r = stale.poll()) != null) {
+            drained = drained.cons(r);
+        }
+        return drained;
+    }
+
+    @Override
+    public void restoreStale(List<Resolvable<?>> resolvables) {
+        resolvables.forEach(stale::add);
+    }
+
+    /**
+     * Return the number of entries currently held, including expired entries
+     * that have not been cleaned up yet.
+     * @return number of entries
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    // --- Helpers
+    private Segment segmentFor(Object key) {
+        final int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    private long weigh(Resolvable<?> r, Object value) {
+        final long weight = config.weigher.weigh(r, value);
+        if (weight < 0) {
+            throw new IllegalStateException(
+                "Weigher returned negative weight for: " + r
+            );
+        }
+        return weight;
+    }
+
+    private long expiresAt(Resolvable<?> r, Object value, long now) {
+        final Duration ttl = value == null && config.absentTtl != null
+            ? config.absentTtl
+            : config.ttlByKey
+                .get(r.getResolvableKey())
+                .orSome(config.defaultTtl);
+        return deadline(now, ttl);
+    }
+
+    /**
+     * Refresh the entry of the given resolvable in the background, and
+     * postpone its next refresh in case this one fails.
+     */
+    private void markStale(Resolvable<?> r, Entry entry, long now) {
+        entry.refreshAt = deadline(now, config.refreshAfter);
+        stale.add(r);
+    }
+
+    private static long deadline(long now, Duration timeout) {
+        if (timeout == null) {
+            return Long.MAX_VALUE;
+        }
+        final long nanos = saturatedNanos(timeout);
+        return nanos >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + nanos;
+    }
+
+    /**
+     * Convert the given non-negative duration to nanoseconds, saturating at
+     * {@link Long#MAX_VALUE} for durations like "never" that do not fit.
+     */
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // --- Segment
+    private static final class Entry {
+        private final Object value;
+        private final long weight;
+        private final long expiresAt;
+
+        // --- Guarded by the lock of the entry's segment
+        private long refreshAt;
+
+        Entry(Object value, long weight, long expiresAt, long refreshAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+
+        boolean isExpired(long now) {
+            return isDue(now, expiresAt);
+        }
+
+        boolean isStale(long now) {
+            return isDue(now, refreshAt);
+        }
+
+        private static boolean isDue(long now, long deadline) {
+            return now - deadline >= 0 && deadline != Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A single, independently locked part of the cache, holding its entries
+     * in access order.
+     */
+    private static final class Segment {
+        private final BoundedEngineCache cache;
+        private final long maximumSize;
+        private final long maximumWeight;
+
+        // --- Guarded by 'this'
+        private final Map<Object, Entry> entries = new LinkedHashMap<>(
+            16,
+            0.75f,
+            true
+        );
+        private long weight = 0;
+        private int writesSinceCleanup = 0;
+
+        Segment(
+            BoundedEngineCache cache,
+            long maximumSize,
+            long maximumWeight
+        ) {
+            this.cache = cache;
+            this.maximumSize = maximumSize;
+            this.maximumWeight = maximumWeight;
+        }
+
+        synchronized Option<Object> get(Resolvable<?> key, long now) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                return Option.none();
+            }
+            if (entry.isExpired(now)) {
+                remove(key);
+                return Option.none();
+            }
+            if (entry.isStale(now)) {
+                cache.markStale(key, entry, now);
+            }
+            return Option.some(entry.value);
+        }
+
+        synchronized void put(Object key, Entry entry, long now) {
+            final Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entry.weight;
+            if (++writesSinceCleanup >= CLEANUP_INTERVAL) {
+                removeExpired(now);
+            }
+            evict();
+        }
+
+        synchronized long size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+
+        private void remove(Object key) {
+            final Entry entry = entries.remove(key);
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+        }
+
+        private void evict() {
+            final Iterator<Entry> it = entries.values().iterator();
+            while (
+                it.hasNext() &&
+                (entries.size() > maximumSize || weight > maximumWeight)
+            ) {
+                weight -= it.next().weight;
+                it.remove();
+            }
+        }
+
+        private void removeExpired(long now) {
+            writesSinceCleanup = 0;
+            final Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                final Entry entry = it.next();
+                if (entry.isExpired(now)) {
+                    weight -= entry.weight;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    // --- Configuration
+    /**
+     * Function computing the weight of a single cache entry. The value is
+     * null for absent resolvables.
+     */
+    @FunctionalInterface
+    public interface Weigher {
+        long weigh(Resolvable<?> resolvable, Object value);
+    }
+
+    /**
+     * Immutable builder for {@link BoundedEngineCache} instances.
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @With(AccessLevel.PRIVATE)
+    public static final class Builder {
+        private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+        private final long maxSize;
+        private final long maxWeight;
+        private final Weigher weigher;
+        private final Duration defaultTtl;
+        private final TreeMap<String, Duration> ttlByKey;
+        private final Duration absentTtl;
+        private final Duration refreshAfter;
+        private final int segmentCount;
+        private final LongSupplier clock;
+
+        private Builder() {
+            this(
+                Long.MAX_VALUE,
+                Long.MAX_VALUE,
+                (r, v) -> 1L,
+                null,
+                TreeMap.empty(Ord.stringOrd),
+                null,
+                null,
+                DEFAULT_CONCURRENCY_LEVEL,
+                System::nanoTime
+            );
+        }
+
+        /**
+         * Limit the number of entries held by the cache.
+         * @param maximumSize maximum number of entries
+         * @return updated builder
+         */
+        public Builder withMaximumSize(long maximumSize) {
+            requireNonNegative("Maximum size", maximumSize);
+            return this.withMaxSize(maximumSize);
+        }
+
+        /**
+         * Limit the total weight of all entries held by the cache.
+         * @param maximumWeight maximum total weight
+         * @param weigher function computing the weight of an entry
+         * @return updated builder
+         */
+        public Builder withMaximumWeight(
+            long maximumWeight,
+            @NonNull Weigher weigher
+        ) {
+            requireNonNegative("Maximum weight", maximumWeight);
+            return this.withMaxWeight(maximumWeight).withWeigher(weigher);
+        }
+
+        /**
+         * Expire entries the given time after they were written.
+         * @param ttl time to live of all entries
+         * @return updated builder
+         */
+        public Builder withExpireAfterWrite(@NonNull Duration ttl) {
+            requireNonNegative("Time to live", ttl);
+            return this.withDefaultTtl(ttl);
+        }
+
+        /**
+         * Expire entries for the given resolvable key the given time after
+         * they were written, overriding the default time to live.
+         * @param resolvableKey resolvable key, see
+         *        {@link Resolvable#getResolvableKey()}
+         * @param ttl time to live of matching entries
+         * @return updated builder
+         */
+        public Builder withExpireAfterWrite(
+            @NonNull String resolvableKey,
+            @NonNull Duration ttl
+        ) {
+            requireNonNegative("Time to live", ttl);
+            return this.withTtlByKey(ttlByKey.set(resolvableKey, ttl));
+        }
+
+        /**
+         * Expire absent resolvables the given time after they were written,
+         * overriding all other times to live. A time to live of zero
+         * disables caching of absent resolvables.
+         * @param ttl time to live of absent resolvables
+         * @return updated builder
+         * @see Results#isAbsent(Object)
+         */
+        public Builder withExpireAbsentAfterWrite(@NonNull Duration ttl) {
+            requireNonNegative("Time to live", ttl);
+            return this.withAbsentTtl(ttl);
+        }
+
+        /**
+         * Refresh entries the given time after they were written. Stale
+         * entries are still returned until they expire, while the engine
+         * fetches fresh values in the background. This should be shorter
+         * than the time to live.
+         * @param refreshAfter soft time to live of all entries
+         * @return updated builder
+         * @see EngineCache#drainStale()
+         */
+        public Builder withRefreshAfterWrite(@NonNull Duration refreshAfter) {
+            requireNonNegative("Refresh interval", refreshAfter);
+            return this.withRefreshAfter(refreshAfter);
+        }
+
+        /**
+         * Set the number of independently locked segments. The value is
+         * rounded up to the next power of two.
+         * @param concurrencyLevel expected number of concurrent writers
+         * @return updated builder
+         */
+        public Builder withConcurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel < 1) {
+                throw new IllegalArgumentException(
+                    "Concurrency level must be positive: " + concurrencyLevel
+                );
+            }
+            return this.withSegmentCount(
+                    Integer.highestOneBit(Math.max(1, concurrencyLevel * 2 - 1))
+                );
+        }
+
+        /**
+         * Set the time source used for expiration, in nanoseconds.
+         * @param ticker time source
+         * @return updated builder
+         */
+        public Builder withTicker(@NonNull LongSupplier ticker) {
+            return this.withClock(ticker);
+        }
+
+        public BoundedEngineCache build() {
+            return new BoundedEngineCache(this);
+        }
+
+        private static void requireNonNegative(String name, long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException(
+                    name + " must not be negative: " + value
+                );
+            }
+        }
+
+        private static void requireNonNegative(String name, Duration value) {
+            if (value.isNegative()) {
+                throw new IllegalArgumentException(
+                    name + " must not be negative: " + value
+                );
+            }
+        }
+    }
+}
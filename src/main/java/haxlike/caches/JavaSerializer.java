@@ -0,0 +1,43 @@
+package haxlike.caches;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * See {@link Serializer#javaSerialization()}.
+ */
+final class JavaSerializer implements Serializer {
+    static final Serializer INSTANCE = new JavaSerializer();
+
+    private JavaSerializer() {}
+
+    @Override
+    public byte[] serialize(Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        try (
+            ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes)
+            )
+        ) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
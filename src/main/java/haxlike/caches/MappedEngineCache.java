@@ -0,0 +1,472 @@
+package haxlike.caches;
+
+import fj.data.List;
+import haxlike.EngineCache;
+import haxlike.Resolvable;
+import haxlike.impl.ResultsImpl;
+import haxlike.resolvers.Results;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.With;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Thread-safe cache persisting entries in memory-mapped, append-only segment
+ * files, so they survive restarts and do not need to be held on the heap.
+ * Keys and values are converted to bytes using a {@link Serializer}.
+ * <p>
+ * Only a compact index is held on the heap, mapping a 64-bit hash of each
+ * serialized key to the location of its latest record. Lookups compare the
+ * stored key bytes, so hash collisions result in cache misses, never in
+ * wrong values. When opening a directory that already contains segments,
+ * the index is rebuilt by scanning them.
+ * <p>
+ * Updating an entry appends a new record; space of outdated records is not
+ * reclaimed. This cache is meant for slowly changing reference data, and
+ * typically used behind a {@link BoundedEngineCache}. Absent resolvables,
+ * see {@link Results#isAbsent(Object)}, are not persisted.
+ * <p>
+ * Entries that cannot be serialized, or no longer be deserialized, e.g.
+ * after a class has changed incompatibly, are treated as cache misses.
+ */
+@Slf4j
+public final class MappedEngineCache implements EngineCache, Closeable {
+    private static final int HEADER_SIZE = 16;
+
+    private final Builder config;
+    private final ArrayList<Segment> segments = new ArrayList<>();
+    private final LocationIndex index = new LocationIndex();
+
+    private MappedEngineCache(Builder config) throws IOException {
+        this.config = config;
+        Files.createDirectories(config.directory);
+        for (int i = 0; Files.exists(pathOf(i)); i++) {
+            final Segment segment = openSegment(i);
+            segments.add(segment);
+            segment.scan(i, index);
+        }
+        if (segments.isEmpty()) {
+            segments.add(openSegment(0));
+        }
+    }
+
+    /**
+     * Create a builder for a cache storing its segments in the given
+     * directory.
+     * @param directory directory to create or open segments in
+     * @return a new builder
+     */
+    public static Builder builder(@NonNull Path directory) {
+        return new Builder(directory);
+    }
+
+    // --- EngineCache
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends Resolvable<V>, V> Results<R, V> getCached(
+        List<R> resolvables
+    ) {
+        final long now = config.wallClock.millis();
+        final Map<R, V> hits = new HashMap<>();
+        for (R r : resolvables) {
+            final byte[] key = serializeKey(r);
+            final byte[] value = key == null ? null : read(key, now);
+            if (value != null) {
+                try {
+                    hits.put(r, (V) config.valueSerializer.deserialize(value));
+                } catch (RuntimeException e) {
+                    log.warn("Could not deserialize cached value of {}", r, e);
+                }
+            }
+        }
+        return new ResultsImpl<>(hits);
+    }
+
+    @Override
+    public <R extends Resolvable<V>, V> void update(Results<R, V> results) {
+        final long now = config.wallClock.millis();
+        results.forEach(
+            (r, value) -> {
+                if (value == null) {
+                    return;
+                }
+                final byte[] key = serializeKey(r);
+                if (key == null) {
+                    return;
+                }
+                final byte[] bytes;
+                try {
+                    bytes = config.valueSerializer.serialize(value);
+                } catch (RuntimeException e) {
+                    log.debug("Could not serialize value of {}", r, e);
+                    return;
+                }
+                try {
+                    write(key, bytes, now);
+                } catch (UncheckedIOException e) {
+                    log.warn("Could not persist value of {}", r, e);
+                }
+            }
+        );
+    }
+
+    /**
+     * Serialize the given resolvable, returning null if this fails, e.g.
+     * because it is not serializable. Such resolvables are never cached.
+     */
+    private byte[] serializeKey(Resolvable<?> r) {
+        try {
+            return config.keySerializer.serialize(r);
+        } catch (RuntimeException e) {
+            log.debug("Could not serialize resolvable {}", r, e);
+            return null;
+        }
+    }
+
+    /**
+     * Return the number of distinct keys stored, including expired entries.
+     * @return number of entries
+     */
+    public synchronized long size() {
+        return index.size();
+    }
+
+    /**
+     * Flush all segments to disk and release them. The cache must not be
+     * used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    // --- Records
+    private synchronized byte[] read(byte[] key, long now) {
+        final long location = index.get(hash(key));
+        if (location < 0) {
+            return null;
+        }
+        final Segment segment = segments.get((int) (location >>> 32));
+        final ByteBuffer record = segment.record((int) location);
+        final int keyLength = record.getInt();
+        final int valueLength = record.getInt();
+        final long writtenAt = record.getLong();
+        if (keyLength != key.length || isExpired(writtenAt, now)) {
+            return null;
+        }
+        final byte[] storedKey = new byte[keyLength];
+        record.get(storedKey);
+        if (!Arrays.equals(key, storedKey)) {
+            return null;
+        }
+        final byte[] value = new byte[valueLength];
+        record.get(value);
+        return value;
+    }
+
+    private boolean isExpired(long writtenAt, long now) {
+        return (
+            config.ttl != null && now - writtenAt >= config.ttl.toMillis()
+        );
+    }
+
+    private synchronized void write(byte[] key, byte[] value, long now) {
+        final int length = HEADER_SIZE + key.length + value.length;
+        if (length > config.segmentBytes) {
+            return;
+        }
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.remaining() < length) {
+            segment.force();
+            segment = openSegment(segments.size());
+            segments.add(segment);
+        }
+        final int offset = segment.append(key, value, now);
+        index.put(hash(key), ((long) (segments.size() - 1) << 32) | offset);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the given bytes.
+     */
+    private static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // --- Segments
+    private Path pathOf(int segment) {
+        return config.directory.resolve(
+            String.format(Locale.ROOT, "segment-%05d.bin", segment)
+        );
+    }
+
+    private Segment openSegment(int number) {
+        try (
+            FileChannel channel = FileChannel.open(
+                pathOf(number),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            return new Segment(
+                channel.map(
+                    FileChannel.MapMode.READ_WRITE,
+                    0,
+                    config.segmentBytes
+                )
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A single segment file, containing records of the form
+     * {@code [key length][value length][write time][key][value]}. A key
+     * length of zero marks the end of the records.
+     */
+    private static final class Segment {
+        private final MappedByteBuffer buffer;
+        private int end = 0;
+
+        Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void scan(int number, LocationIndex index) {
+            while (end + HEADER_SIZE <= buffer.capacity()) {
+                final int keyLength = buffer.getInt(end);
+                final int valueLength = buffer.getInt(end + 4);
+                final int length = HEADER_SIZE + keyLength + valueLength;
+                if (
+                    keyLength <= 0 ||
+                    valueLength < 0 ||
+                    length > buffer.capacity() - end
+                ) {
+                    break;
+                }
+                final byte[] key = new byte[keyLength];
+                record(end + HEADER_SIZE).get(key);
+                index.put(hash(key), ((long) number << 32) | end);
+                end += length;
+            }
+        }
+
+        ByteBuffer record(int offset) {
+            final ByteBuffer record = buffer.duplicate();
+            record.position(offset);
+            return record;
+        }
+
+        int remaining() {
+            return buffer.capacity() - end;
+        }
+
+        int append(byte[] key, byte[] value, long now) {
+            final int offset = end;
+            final ByteBuffer record = record(offset);
+            record.putInt(0).putInt(value.length).putLong(now);
+            record.put(key).put(value);
+            // Publish the record by writing its key length last
+            buffer.putInt(offset, key.length);
+            end += HEADER_SIZE + key.length + value.length;
+            return offset;
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void close() {
+            force();
+        }
+    }
+
+    /**
+     * Open-addressing hash table from key hashes to record locations, i.e.
+     * segment number and offset.
+     */
+    private static final class LocationIndex {
+        private long[] hashes = new long[1024];
+        private long[] locations = new long[1024];
+        private boolean[] used = new boolean[1024];
+        private int size = 0;
+
+        long get(long hash) {
+            final int slot = slotOf(hash);
+            return used[slot] ? locations[slot] : -1;
+        }
+
+        void put(long hash, long location) {
+            int slot = slotOf(hash);
+            if (!used[slot]) {
+                if (2 * (size + 1) > hashes.length) {
+                    resize();
+                    slot = slotOf(hash);
+                }
+                used[slot] = true;
+                hashes[slot] = hash;
+                size++;
+            }
+            locations[slot] = location;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int slotOf(long hash) {
+            final int mask = hashes.length - 1;
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (used[slot] && hashes[slot] != hash) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            final long[] oldHashes = hashes;
+            final long[] oldLocations = locations;
+            final boolean[] oldUsed = used;
+            hashes = new long[oldHashes.length * 2];
+            locations = new long[oldHashes.length * 2];
+            used = new boolean[oldHashes.length * 2];
+            for (int i = 0; i < oldHashes.length; i++) {
+                if (oldUsed[i]) {
+                    final int slot = slotOf(oldHashes[i]);
+                    used[slot] = true;
+                    hashes[slot] = oldHashes[i];
+                    locations[slot] = oldLocations[i];
+                }
+            }
+        }
+    }
+
+    // --- Configuration
+    /**
+     * Immutable builder for {@link MappedEngineCache} instances.
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @With(AccessLevel.PRIVATE)
+    public static final class Builder {
+        private static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+        private final Path directory;
+        private final Serializer keySerializer;
+        private final Serializer valueSerializer;
+        private final int segmentBytes;
+        private final Duration ttl;
+        private final Clock wallClock;
+
+        private Builder(Path directory) {
+            this(
+                directory,
+                Serializer.javaSerialization(),
+                Serializer.javaSerialization(),
+                DEFAULT_SEGMENT_SIZE,
+                null,
+                Clock.systemUTC()
+            );
+        }
+
+        /**
+         * Set the serializer for cached values. Defaults to Java
+         * serialization.
+         * @param serializer serializer to use
+         * @return updated builder
+         */
+        public Builder withSerializer(@NonNull Serializer serializer) {
+            return this.withValueSerializer(serializer);
+        }
+
+        /**
+         * Set the serializer for resolvables. Defaults to Java
+         * serialization.
+         * @param serializer serializer producing identical bytes for equal
+         *        resolvables
+         * @return updated builder
+         */
+        public Builder withResolvableSerializer(
+            @NonNull Serializer serializer
+        ) {
+            return this.withKeySerializer(serializer);
+        }
+
+        /**
+         * Set the size of each segment file. Entries larger than a segment
+         * are not cached.
+         * @param bytes size in bytes
+         * @return updated builder
+         */
+        public Builder withSegmentSize(int bytes) {
+            if (bytes <= HEADER_SIZE) {
+                throw new IllegalArgumentException(
+                    "Segment size must exceed " + HEADER_SIZE + ": " + bytes
+                );
+            }
+            return this.withSegmentBytes(bytes);
+        }
+
+        /**
+         * Expire entries the given time after they were written. Write
+         * times are persisted, so this applies across restarts.
+         * @param ttl time to live of all entries
+         * @return updated builder
+         */
+        public Builder withExpireAfterWrite(@NonNull Duration ttl) {
+            if (ttl.isNegative()) {
+                throw new IllegalArgumentException(
+                    "Time to live must not be negative: " + ttl
+                );
+            }
+            return this.withTtl(ttl);
+        }
+
+        /**
+         * Set the wall clock used for expiration.
+         * @param clock clock to use
+         * @return updated builder
+         */
+        public Builder withClock(@NonNull Clock clock) {
+            return this.withWallClock(clock);
+        }
+
+        /**
+         * Create the cache, opening existing segments in the directory.
+         * @return a new cache
+         * @throws UncheckedIOException if the directory cannot be used
+         */
+        public MappedEngineCache build() {
+            try {
+                return new MappedEngineCache(this);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
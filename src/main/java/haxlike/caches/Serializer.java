@@ -0,0 +1,23 @@
+package haxlike.caches;
+
+/**
+ * Conversion of cache keys and values to and from bytes, used by caches that
+ * store entries off-heap, see {@link MappedEngineCache}.
+ * <p>
+ * Keys are only ever serialized, and looked up by comparing the resulting
+ * bytes. Equal keys therefore have to produce identical bytes.
+ */
+public interface Serializer {
+    byte[] serialize(Object value);
+
+    Object deserialize(byte[] bytes);
+
+    /**
+     * Serializer using Java serialization. All keys and values need to
+     * implement {@link java.io.Serializable}.
+     * @return a serializer
+     */
+    static Serializer javaSerialization() {
+        return JavaSerializer.INSTANCE;
+    }
+}
@@ -0,0 +1,203 @@
+package haxlike.caches;
+
+import fj.data.List;
+import haxlike.EngineCache;
+import haxlike.Resolvable;
+import haxlike.impl.ResultsImpl;
+import haxlike.resolvers.Results;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.With;
+
+/**
+ * Cache of a single resolution, layered over a cache shared across
+ * resolutions. Each result is stored in the request-local tier, and results
+ * of resolvable keys assigned to the {@link Tier#SHARED shared} tier are
+ * additionally passed to the shared cache, see
+ * {@link Builder#withTier(String, Tier)}. This way, e.g. per-user data stays
+ * local to a request, while reference data is shared.
+ * <p>
+ * Values found in the shared cache are copied to the request-local tier, so
+ * each of them is read from the shared cache only once per request. The
+ * request-local tier is a concurrent map, as background refreshes (see
+ * {@link EngineCache#drainStale()}) may update it while the request runs.
+ * <p>
+ * Instances are cheap to create and must not be reused across requests;
+ * create one per request using {@link Builder#build()}.
+ */
+public final class TieredEngineCache implements EngineCache {
+    /**
+     * Value stored for absent resolvables, see {@link Results#isAbsent}.
+     */
+    private static final Object ABSENT = new Object();
+
+    private final Builder config;
+    private final Map<Resolvable<?>, Object> local = new ConcurrentHashMap<>();
+
+    private TieredEngineCache(Builder config) {
+        this.config = config;
+    }
+
+    /**
+     * Create a builder for request caches layered over the given shared
+     * cache. By default, all results are shared.
+     * @param shared cache shared across requests
+     * @return a new builder
+     */
+    public static Builder builder(@NonNull EngineCache shared) {
+        return new Builder(shared, Tier.SHARED, new HashMap<>());
+    }
+
+    /**
+     * Cache tier results are stored in.
+     */
+    public enum Tier {
+        /**
+         * Results are only cached for the current request.
+         */
+        REQUEST,
+
+        /**
+         * Results are cached for the current request and in the shared cache.
+         */
+        SHARED,
+    }
+
+    // --- EngineCache
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends Resolvable<V>, V> Results<R, V> getCached(
+        List<R> resolvables
+    ) {
+        final Map<R, V> hits = new HashMap<>();
+        List<R> misses = List.nil();
+        for (R r : resolvables) {
+            final Object v = local.get(r);
+            if (v != null) {
+                hits.put(r, v == ABSENT ? null : (V) v);
+            } else if (tierOf(r) == Tier.SHARED) {
+                misses = misses.cons(r);
+            }
+        }
+        if (misses.isNotEmpty()) {
+            config.shared
+                .getCached(misses)
+                .forEach(
+                    (r, v) -> {
+                        local.put(r, v == null ? ABSENT : v);
+                        hits.put(r, v);
+                    }
+                );
+        }
+        return new ResultsImpl<>(hits);
+    }
+
+    @Override
+    public <R extends Resolvable<V>, V> void update(Results<R, V> results) {
+        final Map<R, V> shared = new HashMap<>();
+        results.forEach(
+            (r, v) -> {
+                local.put(r, v == null ? ABSENT : v);
+                if (tierOf(r) == Tier.SHARED) {
+                    shared.put(r, v);
+                }
+            }
+        );
+        if (shared.size() == results.size()) {
+            config.shared.update(results);
+        } else if (!shared.isEmpty()) {
+            config.shared.update(new ResultsImpl<>(shared));
+        }
+    }
+
+    @Override
+    public List<Resolvable<?>> drainStale() {
+        return config.shared.drainStale();
+    }
+
+    @Override
+    public void restoreStale(List<Resolvable<?>> resolvables) {
+        config.shared.restoreStale(resolvables);
+    }
+
+    /**
+     * Return the number of entries held by the request-local tier.
+     * @return number of entries
+     */
+    public int size() {
+        return local.size();
+    }
+
+    private Tier tierOf(Resolvable<?> r) {
+        if (config.tierByKey.isEmpty()) {
+            return config.defaultTier;
+        }
+        final Tier tier = config.tierByKey.get(r.getResolvableKey());
+        return tier == null ? config.defaultTier : tier;
+    }
+
+    // --- Configuration
+    /**
+     * Immutable builder for {@link TieredEngineCache} instances, meant to be
+     * configured once and used to create a cache for every request.
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @With(AccessLevel.PRIVATE)
+    public static final class Builder {
+        private final EngineCache shared;
+        private final Tier defaultTier;
+
+        /**
+         * Tiers by resolvable key; copied on write, so it can be read by all
+         * request caches without locking.
+         */
+        private final Map<String, Tier> tierByKey;
+
+        /**
+         * Set the tier of results whose resolvable key has no explicit tier.
+         * @param tier tier to use
+         * @return updated builder
+         */
+        public Builder withDefaultTier(@NonNull Tier tier) {
+            return new Builder(shared, tier, tierByKey);
+        }
+
+        /**
+         * Set the tier of results for the given resolvable key.
+         * @param resolvableKey resolvable key, see
+         *        {@link Resolvable#getResolvableKey()}
+         * @param tier tier to use
+         * @return updated builder
+         */
+        public Builder withTier(
+            @NonNull String resolvableKey,
+            @NonNull Tier tier
+        ) {
+            final Map<String, Tier> tiers = new HashMap<>(tierByKey);
+            tiers.put(resolvableKey, tier);
+            return this.withTierByKey(tiers);
+        }
+
+        /**
+         * Shorthand for {@link #withTier(String, Tier)} keeping results of
+         * the given resolvable key local to each request.
+         * @param resolvableKey resolvable key
+         * @return updated builder
+         */
+        public Builder withRequestLocal(@NonNull String resolvableKey) {
+            return this.withTier(resolvableKey, Tier.REQUEST);
+        }
+
+        /**
+         * Create a cache for a single request.
+         * @return a new, empty request cache
+         */
+        public TieredEngineCache build() {
+            return new TieredEngineCache(this);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package haxlike.impl;
+
+import fj.F;
+import fj.data.HashMap;
+import fj.data.List;
+import fj.data.Option;
+import haxlike.resolvers.Results;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Results stored in arrays, in the order of their keys, and indexed using an
+ * open-addressing hash table of positions. This is used for results created
+ * from a list of resolvables, see {@link Results#zip(List, List)} and
+ * {@link Results#match(List, List, F)}, and can be injected into nodes
+ * without being copied.
+ * <p>
+ * Instances are immutable once created.
+ * @param <R> resolvable class
+ * @param <V> value class
+ */
+public final class ArrayResults<R, V> implements Results<R, V> {
+    private final Object[] keys;
+    private final Object[] values;
+    private final int size;
+
+    /**
+     * Positions of keys, plus one so zero marks free slots.
+     */
+    private final int[] index;
+    private final long keyMask;
+
+    /**
+     * Create results from the first {@code length} given keys, dropping
+     * duplicates. The array is reused to store the unique keys.
+     * @param positions if not null, receives the position of every given key
+     */
+    private ArrayResults(Object[] keys, int length, int[] positions) {
+        this.values = new Object[length];
+        this.index = new int[tableSize(length)];
+        int count = 0;
+        long mask = 0L;
+        for (int i = 0; i < length; i++) {
+            final Object key = keys[i];
+            final int h = key.hashCode();
+            final int slot = slotOf(index, keys, key, h);
+            if (index[slot] == 0) {
+                keys[count] = key;
+                index[slot] = ++count;
+                mask |= Results.hashBit(h);
+            }
+            if (positions != null) {
+                positions[i] = index[slot] - 1;
+            }
+        }
+        this.keys = keys;
+        this.size = count;
+        this.keyMask = mask;
+    }
+
+    // --- Hash Table
+    private static int tableSize(int length) {
+        int size = 8;
+        while (size < 2 * length) {
+            size *= 2;
+        }
+        return size;
+    }
+
+    /**
+     * Find the slot of the given key, or the free slot to insert it into.
+     */
+    private static int slotOf(int[] index, Object[] keys, Object key, int h) {
+        final int mask = index.length - 1;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (index[slot] != 0) {
+            if (Objects.equals(keys[index[slot] - 1], key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // --- Results
+    @Override
+    @SuppressWarnings("unchecked")
+    public Option<V> get(R resolvable) {
+        final int position =
+            index[slotOf(index, keys, resolvable, resolvable.hashCode())] - 1;
+        return position < 0
+            ? Option.none()
+            : Option.fromNull((V) values[position]);
+    }
+
+    @Override
+    public boolean contains(R resolvable) {
+        final int h = resolvable.hashCode();
+        return index[slotOf(index, keys, resolvable, h)] != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getKeyMask() {
+        return keyMask;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super R, ? super V> f) {
+        for (int i = 0; i < size; i++) {
+            f.accept((R) keys[i], (V) values[i]);
+        }
+    }
+
+    @Override
+    public void into(HashMap<R, V> target) {
+        forEach(target::set);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Results<T, V> mapKeys(F<R, T> f) {
+        final Object[] mapped = new Object[size];
+        for (int i = 0; i < size; i++) {
+            mapped[i] = f.f((R) keys[i]);
+        }
+        final int[] positions = new int[size];
+        final ArrayResults<T, V> results = new ArrayResults<>(
+            mapped,
+            size,
+            positions
+        );
+        for (int i = 0; i < size; i++) {
+            results.values[positions[i]] = values[i];
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder("ArrayResults(");
+        for (int i = 0; i < size; i++) {
+            out.append(i == 0 ? "" : ", ");
+            out.append(keys[i]).append('=').append(values[i]);
+        }
+        return out.append(')').toString();
+    }
+
+    // --- Factories
+    /**
+     * See {@link Results#zip(List, List)}. For duplicate resolvables, the
+     * last value wins. Like {@link List#zip(List)}, the longer list is
+     * truncated, so resolvables without a value are not part of the results.
+     */
+    public static <R, V> Results<R, V> zip(List<R> resolvables, List<V> vs) {
+        final Object[] keys = toArray(resolvables);
+        final Object[] values = toArray(vs);
+        final int length = Math.min(keys.length, values.length);
+        final int[] positions = new int[length];
+        final ArrayResults<R, V> results = new ArrayResults<>(
+            keys,
+            length,
+            positions
+        );
+        for (int i = 0; i < length; i++) {
+            results.values[positions[i]] = values[i];
+        }
+        return results;
+    }
+
+    /**
+     * See {@link Results#match(List, List, F, Object)}. The resolvables are
+     * the ids themselves, so a single hash table is used for matching and
+     * lookup.
+     */
+    public static <I, V> Results<I, V> match(
+        List<I> references,
+        List<V> vs,
+        F<V, I> fv,
+        V defaultValue
+    ) {
+        final Object[] keys = toArray(references);
+        final ArrayResults<I, V> results = new ArrayResults<>(
+            keys,
+            keys.length,
+            null
+        );
+        results.fill(defaultValue);
+        for (V v : vs) {
+            final I id = fv.f(v);
+            if (id != null) {
+                final int slot = slotOf(results.index, keys, id, id.hashCode());
+                if (results.index[slot] != 0) {
+                    results.values[results.index[slot] - 1] = v;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * See {@link Results#match(List, F, List, F, Object)}. Resolvables are
+     * indexed by their id in a second hash table, chaining all positions
+     * sharing an id.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R, V, I> Results<R, V> match(
+        List<R> resolvables,
+        F<R, I> fr,
+        List<V> vs,
+        F<V, I> fv,
+        V defaultValue
+    ) {
+        final Object[] keys = toArray(resolvables);
+        final ArrayResults<R, V> results = new ArrayResults<>(
+            keys,
+            keys.length,
+            null
+        );
+        results.fill(defaultValue);
+
+        final int size = results.size;
+        final Object[] ids = new Object[size];
+        final int[] idIndex = new int[tableSize(size)];
+        final int[] next = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = fr.f((R) keys[i]);
+            final int slot = slotOf(idIndex, ids, ids[i], hash(ids[i]));
+            next[i] = idIndex[slot];
+            idIndex[slot] = i + 1;
+        }
+        for (V v : vs) {
+            final I id = fv.f(v);
+            int position = idIndex[slotOf(idIndex, ids, id, hash(id))];
+            while (position != 0) {
+                results.values[position - 1] = v;
+                position = next[position - 1];
+            }
+        }
+        return results;
+    }
+
+    private static Object[] toArray(List<?> list) {
+        final Object[] array = new Object[list.length()];
+        int i = 0;
+        for (Object o : list) {
+            array[i++] = o;
+        }
+        return array;
+    }
+
+    private static int hash(Object id) {
+        return Objects.hashCode(id);
+    }
+
+    private void fill(V defaultValue) {
+        if (defaultValue != null) {
+            Arrays.fill(values, 0, size, defaultValue);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package haxlike.impl;
+
+import fj.data.HashMap;
+import fj.data.List;
+import haxlike.ResolutionStrategy;
+import haxlike.Resolvable;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.ResolverDefinition;
+import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+
+/**
+ * Resolver decorator collecting the batches of all concurrent resolutions of
+ * an engine for a short time window, then resolving them using a single call
+ * to the underlying resolver. A window is flushed early once it contains the
+ * maximum number of resolvables.
+ * <p>
+ * Batches are added to the current window as soon as their operations are
+ * created, so windows of different resolvers are collected concurrently.
+ * Blocking operations of flushed windows run on a dedicated pool of daemon
+ * threads instead of the engine's {@link ResolutionStrategy}: the operations
+ * waiting for a window might occupy all threads of the latter, so the flush
+ * could never run.
+ *
+ * @param <E> environment class
+ * @param <R> resolvable class
+ * @param <V> resolvable value class
+ */
+final class BatchWindow<E, R extends Resolvable<V>, V>
+    implements ResolverDefinition<E, R, V> {
+    private final ResolverDefinition<? super E, R, V> resolver;
+    private final Config config;
+    private final Executor delayedExecutor;
+
+    // --- Guarded by 'this'
+    private Window current;
+
+    BatchWindow(
+        ResolverDefinition<? super E, R, V> resolver,
+        Config config
+    ) {
+        this.resolver = resolver;
+        this.config = config;
+        this.delayedExecutor =
+            CompletableFuture.delayedExecutor(
+                config.getWindow().toNanos(),
+                TimeUnit.NANOSECONDS
+            );
+    }
+
+    @Override
+    public String getResolvableKey() {
+        return resolver.getResolvableKey();
+    }
+
+    @Override
+    public List<Operation<R, V>> createOperations(E env, List<R> batch) {
+        final CompletableFuture<Results<R, V>> results = enqueue(env, batch)
+            .thenApply(values -> select(values, batch));
+        return List.single(Operation.async(() -> results));
+    }
+
+    private CompletableFuture<HashMap<R, V>> enqueue(E env, List<R> batch) {
+        final Window window;
+        final boolean full;
+        synchronized (this) {
+            if (current == null) {
+                current = new Window(env);
+                final Window scheduled = current;
+                delayedExecutor.execute(() -> flush(scheduled));
+            }
+            window = current;
+            batch.forEach(window.resolvables::add);
+            full = window.resolvables.size() >= config.getMaxSize();
+        }
+        if (full) {
+            flush(window);
+        }
+        return window.results;
+    }
+
+    private void flush(Window window) {
+        final List<R> batch;
+        synchronized (this) {
+            if (current != window) {
+                return;
+            }
+            current = null;
+            batch = List.iterableList(window.resolvables);
+        }
+
+        Futures
+            .supply(() -> resolver.createOperations(window.env, batch))
+            .thenCompose(ops -> Futures.sequence(ops.map(BatchWindow::start)))
+            .whenComplete(
+                (results, error) -> {
+                    if (error != null) {
+                        window.results.completeExceptionally(error);
+                    } else {
+                        final HashMap<R, V> values = HashMap.hashMap();
+                        results.forEach(r -> r.into(values));
+                        window.results.complete(values);
+                    }
+                }
+            );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, V> CompletableFuture<Results<R, V>> start(
+        Operation<R, V> op
+    ) {
+        if (op instanceof Operation.Async) {
+            return Futures.start((Operation.Async<R, V>) op);
+        }
+        return CompletableFuture.supplyAsync(
+            op::runOperation,
+            FlushExecutor.EXECUTOR
+        );
+    }
+
+    private static <R, V> Results<R, V> select(
+        HashMap<R, V> values,
+        List<R> batch
+    ) {
+        final ArrayList<R> found = new ArrayList<>();
+        final ArrayList<V> foundValues = new ArrayList<>();
+        for (R r : batch) {
+            if (values.contains(r)) {
+                found.add(r);
+                foundValues.add(values.get(r).toNull());
+            }
+        }
+        return Results.zip(
+            List.iterableList(found),
+            List.iterableList(foundValues)
+        );
+    }
+
+    /**
+     * Resolvables collected within a single window.
+     */
+    private final class Window {
+        private final E env;
+        private final Set<R> resolvables = new LinkedHashSet<>();
+        private final CompletableFuture<HashMap<R, V>> results = new CompletableFuture<>();
+
+        Window(E env) {
+            this.env = env;
+        }
+    }
+
+    /**
+     * Lazily created pool running the blocking operations of flushed windows
+     * of all engines.
+     */
+    private static final class FlushExecutor {
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+            r -> {
+                final Thread thread = new Thread(r, "haxlike-batch-window");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Configuration of a batch window.
+     */
+    @Value
+    static class Config {
+        Duration window;
+        int maxSize;
+    }
+}
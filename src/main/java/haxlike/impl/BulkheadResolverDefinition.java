@@ -0,0 +1,40 @@
+package haxlike.impl;
+
+import fj.data.List;
+import haxlike.Bulkhead;
+import haxlike.Resolvable;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.ResolverDefinition;
+
+/**
+ * Resolver decorator running all operations through a {@link Bulkhead}.
+ *
+ * @param <E> environment class
+ * @param <R> resolvable class
+ * @param <V> resolvable value class
+ */
+final class BulkheadResolverDefinition<E, R extends Resolvable<V>, V>
+    implements ResolverDefinition<E, R, V> {
+    private final ResolverDefinition<? super E, R, V> resolver;
+    private final Bulkhead bulkhead;
+
+    BulkheadResolverDefinition(
+        ResolverDefinition<? super E, R, V> resolver,
+        Bulkhead bulkhead
+    ) {
+        this.resolver = resolver;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public String getResolvableKey() {
+        return resolver.getResolvableKey();
+    }
+
+    @Override
+    public List<Operation<R, V>> createOperations(E env, List<R> batch) {
+        return resolver
+            .createOperations(env, batch)
+            .map(op -> (Operation<R, V>) bulkhead.decorate(op));
+    }
+}
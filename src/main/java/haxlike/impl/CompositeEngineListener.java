@@ -0,0 +1,75 @@
+package haxlike.impl;
+
+import fj.data.List;
+import haxlike.EngineListener;
+
+/**
+ * Listener forwarding all events to multiple listeners, in order.
+ */
+final class CompositeEngineListener implements EngineListener {
+    private final List<EngineListener> listeners;
+
+    private CompositeEngineListener(List<EngineListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    static EngineListener of(List<EngineListener> listeners) {
+        if (listeners.isEmpty()) {
+            return EngineListener.NONE;
+        }
+        if (listeners.isSingle()) {
+            return listeners.head();
+        }
+        return new CompositeEngineListener(listeners);
+    }
+
+    @Override
+    public EngineListener forResolution() {
+        final List<EngineListener> resolutionListeners = listeners.map(
+            EngineListener::forResolution
+        );
+        final boolean unchanged = resolutionListeners
+            .zip(listeners)
+            .forall(p -> p._1() == p._2());
+        return unchanged
+            ? this
+            : of(resolutionListeners.filter(l -> l != NONE));
+    }
+
+    @Override
+    public void onResolution(long nanos, Throwable error) {
+        listeners.forEach(l -> l.onResolution(nanos, error));
+    }
+
+    @Override
+    public void onIteration(int iteration, int resolvables) {
+        listeners.forEach(l -> l.onIteration(iteration, resolvables));
+    }
+
+    @Override
+    public void onCacheLookup(int hits, int misses) {
+        listeners.forEach(l -> l.onCacheLookup(hits, misses));
+    }
+
+    @Override
+    public void onBatch(String resolvableKey, int size) {
+        listeners.forEach(l -> l.onBatch(resolvableKey, size));
+    }
+
+    @Override
+    public void onOperation(
+        String resolvableKey,
+        long nanos,
+        int resultCount,
+        Throwable error
+    ) {
+        listeners.forEach(
+            l -> l.onOperation(resolvableKey, nanos, resultCount, error)
+        );
+    }
+
+    @Override
+    public void onRefresh(int resolvables, Throwable error) {
+        listeners.forEach(l -> l.onRefresh(resolvables, error));
+    }
+}
@@ -1,15 +1,22 @@
 package haxlike.impl;
 
+import fj.data.List;
+import haxlike.Bulkhead;
 import haxlike.Engine;
 import haxlike.EngineBuilder;
+import haxlike.EngineListener;
 import haxlike.ResolutionStrategies;
 import haxlike.ResolutionStrategy;
 import haxlike.Resolvable;
 import haxlike.SelectionStrategies;
 import haxlike.SelectionStrategy;
 import haxlike.resolvers.ResolverDefinition;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.With;
@@ -28,19 +35,33 @@ public class EngineBuilderImpl<E> implements EngineBuilder<E> {
     @With(AccessLevel.PRIVATE)
     private final EngineLogger logger;
 
+    @With(AccessLevel.PRIVATE)
+    private final Duration coalescingWindow;
+
+    @With(AccessLevel.PRIVATE)
+    private final boolean requestCoalescing;
+
+    @With(AccessLevel.PRIVATE)
+    private final List<EngineListener> listeners;
+
     // --- Values that can be injected directly
     // These are exposed using the `@With` annotation on class-level.
     private final ResolutionStrategy resolutionStrategy;
     private final SelectionStrategy selectionStrategy;
     private final int maxIterationCount;
+    private final Executor refreshExecutor;
 
     public EngineBuilderImpl() {
         this(
             new EngineRegistry<>(),
             new EngineLogger.NoOp(),
+            null,
+            false,
+            List.nil(),
             ResolutionStrategies.defaultStrategy(),
             SelectionStrategies.defaultStrategy(),
-            DEFAULT_MAX_ITERATION_COUNT
+            DEFAULT_MAX_ITERATION_COUNT,
+            ForkJoinPool.commonPool()
         );
     }
 
@@ -52,6 +73,60 @@ public class EngineBuilderImpl<E> implements EngineBuilder<E> {
         return this.withRegistry(registry.registerResolver(resolver));
     }
 
+    @Override
+    public EngineBuilder<E> withPipelining(@NonNull Duration window) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException(
+                "Coalescing window must not be negative: " + window
+            );
+        }
+        return this.withCoalescingWindow(window);
+    }
+
+    @Override
+    public EngineBuilder<E> withRequestCoalescing() {
+        return this.withRequestCoalescing(true);
+    }
+
+    @Override
+    public EngineBuilder<E> withBatchWindow(
+        @NonNull String resolvableKey,
+        @NonNull Duration window,
+        int maxSize
+    ) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException(
+                "Batch window must not be negative: " + window
+            );
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(
+                "Batch window size must be positive: " + maxSize
+            );
+        }
+        return this.withRegistry(
+                registry.registerBatchWindow(
+                    resolvableKey,
+                    new BatchWindow.Config(window, maxSize)
+                )
+            );
+    }
+
+    @Override
+    public EngineBuilder<E> withBulkhead(
+        @NonNull String resolvableKey,
+        @NonNull Bulkhead bulkhead
+    ) {
+        return this.withRegistry(
+                registry.registerBulkhead(resolvableKey, bulkhead)
+            );
+    }
+
+    @Override
+    public EngineBuilder<E> withListener(@NonNull EngineListener listener) {
+        return this.withListeners(listeners.snoc(listener));
+    }
+
     @Override
     public EngineBuilder<E> withTraceLogging() {
         return this.withLogger(new EngineLogger.Slf4j());
@@ -62,11 +137,25 @@ public class EngineBuilderImpl<E> implements EngineBuilder<E> {
         return EngineImpl
             .<E>builder()
             .environment(environment)
-            .registry(registry)
+            .registry(registry.prepare())
             .resolutionStrategy(resolutionStrategy)
             .selectionStrategy(selectionStrategy)
             .maxIterationCount(maxIterationCount)
+            .refreshExecutor(refreshExecutor)
             .logger(logger)
+            .coalescingWindow(coalescingWindow)
+            .inFlightRegistry(
+                requestCoalescing
+                    ? InFlightRegistry.create()
+                    : InFlightRegistry.disabled()
+            )
+            .listener(
+                CompositeEngineListener.of(
+                    listeners
+                        .cons(selectionStrategy.getListener())
+                        .filter(l -> l != EngineListener.NONE)
+                )
+            )
             .build();
     }
 }
@@ -1,32 +1,37 @@
 package haxlike.impl;
 
-import fj.data.HashMap;
 import fj.data.List;
 import haxlike.EngineCache;
 import haxlike.Resolvable;
 import haxlike.resolvers.Results;
+import java.util.HashMap;
+import java.util.Map;
 
 public class EngineCacheImpl implements EngineCache {
-    private final HashMap<Resolvable<?>, ?> cache = HashMap.hashMap();
+    /**
+     * Value stored for absent resolvables, see {@link Results#isAbsent}.
+     */
+    private static final Object ABSENT = new Object();
 
-    @Override
-    public <R extends Resolvable<?>> List<R> removeCached(List<R> resolvables) {
-        return resolvables.removeAll(cache::contains);
-    }
+    private final Map<Resolvable<?>, Object> cache = new HashMap<>();
 
     @Override
-    public <R extends Resolvable<V>, V> Results<R, V> updateAndGet(
-        Results<R, V> results
+    @SuppressWarnings("unchecked")
+    public <R extends Resolvable<V>, V> Results<R, V> getCached(
+        List<R> resolvables
     ) {
-        return mergeResultsIntoCache(results);
+        final Map<R, V> hits = new HashMap<>();
+        for (R r : resolvables) {
+            final Object v = cache.get(r);
+            if (v != null) {
+                hits.put(r, v == ABSENT ? null : (V) v);
+            }
+        }
+        return new ResultsImpl<>(hits);
     }
 
-    @SuppressWarnings("unchecked")
-    private <R extends Resolvable<V>, V> Results<R, V> mergeResultsIntoCache(
-        Results<R, V> results
-    ) {
-        final HashMap<R, V> cacheRef = (HashMap<R, V>) cache;
-        results.into(cacheRef);
-        return new ResultsImpl<>(cacheRef);
+    @Override
+    public <R extends Resolvable<V>, V> void update(Results<R, V> results) {
+        results.forEach((r, v) -> cache.put(r, v == null ? ABSENT : v));
     }
 }
@@ -1,21 +1,37 @@
 package haxlike.impl;
 
-import fj.Ord;
-import fj.data.HashSet;
 import fj.data.List;
 import haxlike.Engine;
 import haxlike.EngineCache;
+import haxlike.EngineListener;
 import haxlike.Node;
 import haxlike.ResolutionStrategy;
 import haxlike.Resolvable;
 import haxlike.SelectionStrategy;
+import haxlike.nodes.CollectionNode;
+import haxlike.nodes.FlatMapNode;
+import haxlike.nodes.MapNode;
+import haxlike.nodes.tuples.Tuple2;
+import haxlike.nodes.tuples.Tuple3;
+import haxlike.nodes.tuples.Tuple4;
 import haxlike.resolvers.Operation;
 import haxlike.resolvers.ResolverDefinition;
 import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.Value;
+import lombok.With;
 
 @Value
 @Builder
@@ -29,7 +45,12 @@ class EngineImpl<E> implements Engine {
     @NonNull
     ResolutionStrategy resolutionStrategy;
 
+    /**
+     * Selection strategy of the engine, or of a single resolution, see
+     * {@link #forResolution()}.
+     */
     @NonNull
+    @With(AccessLevel.PRIVATE)
     SelectionStrategy selectionStrategy;
 
     @NonNull
@@ -37,19 +58,221 @@ class EngineImpl<E> implements Engine {
 
     E environment;
 
+    /**
+     * Coalescing window for pipelined resolution; iterations act as barriers
+     * if this is not set.
+     */
+    Duration coalescingWindow;
+
+    /**
+     * Registry of resolvables in flight across all resolutions, used for
+     * request coalescing.
+     */
+    @NonNull
+    InFlightRegistry inFlightRegistry;
+
+    /**
+     * Executor refreshing stale cache entries, see
+     * {@link EngineCache#drainStale()}.
+     */
+    @NonNull
+    Executor refreshExecutor;
+
+    /**
+     * Listener of the engine, or of a single resolution, see
+     * {@link #forResolution()}.
+     */
+    @NonNull
+    @With(AccessLevel.PRIVATE)
+    EngineListener listener;
+
     @Override
     public <T> T resolve(Node<T> node, EngineCache cache) {
+        if (coalescingWindow != null) {
+            return join(resolveAsync(node, cache));
+        }
+        return forResolution().resolveSync(node, cache);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> resolveAsync(
+        Node<T> node,
+        EngineCache cache
+    ) {
+        return forResolution().resolveAsyncWithListener(node, cache);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Integer> warm(
+        List<? extends Resolvable<?>> resolvables,
+        EngineCache cache,
+        int chunkSize
+    ) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException(
+                "Chunk size must be positive: " + chunkSize
+            );
+        }
+        final List<List<Resolvable<Object>>> chunks = groupByKey(
+            (List<Resolvable<Object>>) resolvables
+        )
+            .bind(group -> group.partition(chunkSize));
+        // chunks run one after another, so the list needs no synchronization
+        final java.util.List<Throwable> failures = new ArrayList<>();
+        CompletableFuture<Integer> warmed = CompletableFuture.completedFuture(
+            0
+        );
+        for (List<Resolvable<Object>> chunk : chunks) {
+            warmed =
+                warmed.thenComposeAsync(
+                    count ->
+                        Futures
+                            .supply(() -> warmChunk(chunk, cache))
+                            .thenCompose(f -> f)
+                            .handle(
+                                (n, e) -> {
+                                    if (e == null) {
+                                        return count + n;
+                                    }
+                                    onWarmFailure(chunk, e, failures);
+                                    return count;
+                                }
+                            ),
+                    refreshExecutor
+                );
+        }
+        return warmed.thenApply(
+            count -> {
+                if (failures.isEmpty()) {
+                    return count;
+                }
+                final Throwable failure = failures.get(0);
+                failures.stream().skip(1).forEach(failure::addSuppressed);
+                throw new CompletionException(failure);
+            }
+        );
+    }
+
+    private void onWarmFailure(
+        List<? extends Resolvable<?>> chunk,
+        Throwable e,
+        java.util.List<Throwable> failures
+    ) {
+        final Throwable cause = Futures.unwrap(e);
+        if (logger.isEnabled()) {
+            logger.log(
+                "Failed to warm {} resolvable(s): {}",
+                chunk.length(),
+                cause
+            );
+        }
+        failures.add(cause);
+    }
+
+    private <V, R extends Resolvable<V>> CompletableFuture<Integer> warmChunk(
+        List<R> chunk,
+        EngineCache cache
+    ) {
+        final Results<R, V> cached = cache.getCached(chunk);
+        final List<R> uncached = cached.size() == 0
+            ? chunk
+            : chunk.filter(r -> !cached.contains(r));
+        if (uncached.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return Futures
+            .supply(() -> createOperations(uncached))
+            .thenCompose(resolutionStrategy::runAsync)
+            .thenApply(ResultsImpl::from)
+            .thenApply(results -> updateCache(cache, results).size());
+    }
+
+    /**
+     * Return the engine to use for a single resolution, using the listener
+     * and selection strategy returned by their {@code forResolution()}.
+     */
+    private EngineImpl<E> forResolution() {
+        final EngineListener resolutionListener = listener.forResolution();
+        final SelectionStrategy selection = selectionStrategy.forResolution();
+        if (resolutionListener == listener && selection == selectionStrategy) {
+            return this;
+        }
+        return this.withListener(resolutionListener)
+            .withSelectionStrategy(selection);
+    }
+
+    private <T> T resolveSync(Node<T> node, EngineCache cache) {
+        final long start = System.nanoTime();
+        try {
+            final T value = resolveIterations(node, cache);
+            listener.onResolution(System.nanoTime() - start, null);
+            return value;
+        } catch (RuntimeException e) {
+            listener.onResolution(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    private <T> T resolveIterations(Node<T> node, EngineCache cache) {
         Node<T> n = node;
         int iterationCount = 1;
         while (!n.isResolved()) {
             verifyMaxDepth(iterationCount);
-            logIteration(iterationCount++);
-            n = resolveNext(n, cache);
+            logIteration(iterationCount);
+            n = resolveNext(n, cache, iterationCount++);
         }
         return n.getValue();
     }
 
-    private void verifyMaxDepth(int iterationCount) {
+    private <T> CompletableFuture<T> resolveAsyncWithListener(
+        Node<T> node,
+        EngineCache cache
+    ) {
+        final long start = System.nanoTime();
+        final CompletableFuture<T> result = coalescingWindow != null
+            ? new PipelinedResolution<>(this, node, cache).start()
+            : resolveAsync(node, cache, 1);
+        return result.whenComplete(
+            (value, error) ->
+                listener.onResolution(System.nanoTime() - start, error)
+        );
+    }
+
+    private <T> CompletableFuture<T> resolveAsync(
+        Node<T> node,
+        EngineCache cache,
+        int iterationCount
+    ) {
+        if (node.isResolved()) {
+            return CompletableFuture
+                .completedFuture(node)
+                .thenApply(Node::getValue);
+        }
+        return CompletableFuture
+            .completedFuture(node)
+            .thenCompose(
+                n -> {
+                    verifyMaxDepth(iterationCount);
+                    logIteration(iterationCount);
+                    return resolveNextAsync(n, cache, iterationCount);
+                }
+            )
+            .thenCompose(n -> resolveAsync(n, cache, iterationCount + 1));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    void verifyMaxDepth(int iterationCount) {
         if (iterationCount > maxIterationCount) {
             throw new IllegalStateException(
                 String.format(
@@ -65,52 +288,262 @@ class EngineImpl<E> implements Engine {
      *
      * @param <T>  target class
      * @param node node to resolve
+     * @param iteration number of the current iteration
      * @return a node with elements resolved
      */
-    private <T> Node<T> resolveNext(Node<T> node, EngineCache cache) {
+    private <T, V, R extends Resolvable<V>> Node<T> resolveNext(
+        Node<T> node,
+        EngineCache cache,
+        int iteration
+    ) {
+        final List<R> resolvables = logResolvables(uniqueResolvables(node));
+        notifyIteration(iteration, resolvables);
+        final Results<R, V> cached = cache.getCached(resolvables);
+        refreshStale(cache);
+        final InFlightRegistry.Claims claims = inFlightRegistry.claims();
+        try {
+            return Optional
+                .of(uncachedResolvables(resolvables, cached))
+                .map(uncached -> prepareOperations(uncached, claims))
+                .map(this::runOperations)
+                .map(results -> updateCache(cache, results))
+                .map(results -> injectResults(node, merge(cached, results)))
+                .orElseThrow();
+        } finally {
+            claims.release();
+        }
+    }
+
+    /**
+     * Resolve the next available batches of resolvables without blocking
+     *
+     * @param <T>  target class
+     * @param node node to resolve
+     * @param iteration number of the current iteration
+     * @return a future of the node with elements resolved
+     */
+    private <T, V, R extends Resolvable<V>> CompletableFuture<Node<T>> resolveNextAsync(
+        Node<T> node,
+        EngineCache cache,
+        int iteration
+    ) {
+        final List<R> resolvables = logResolvables(uniqueResolvables(node));
+        notifyIteration(iteration, resolvables);
+        final Results<R, V> cached = cache.getCached(resolvables);
+        refreshStale(cache);
+        final InFlightRegistry.Claims claims = inFlightRegistry.claims();
+        return Futures
+            .supply(
+                () ->
+                    prepareOperations(
+                        uncachedResolvables(resolvables, cached),
+                        claims
+                    )
+            )
+            .thenCompose(resolutionStrategy::runAsync)
+            .whenComplete((results, error) -> claims.release())
+            .thenApply(ResultsImpl::from)
+            .thenApply(results -> updateCache(cache, results))
+            .thenApply(results -> injectResults(node, merge(cached, results)));
+    }
+
+    /**
+     * Select and prepare the next batches of uncached resolvables.
+     *
+     * @param uncached resolvables that are not cached
+     * @param claims claims of resolvables fetched in this iteration
+     * @return operations to run in this iteration
+     */
+    private <V, R extends Resolvable<V>> List<Operation<R, V>> prepareOperations(
+        List<R> uncached,
+        InFlightRegistry.Claims claims
+    ) {
         return Optional
-            .of(node)
-            .map(this::uniqueResolvables)
-            .map(this::logResolvables)
-            .map(cache::removeCached)
+            .of(uncached)
             .map(this::logUncachedResolvables)
             .map(this::selectNextBatches)
             .map(this::logBatches)
-            .map(this::createAllOperations)
-            .map(this::runOperations)
-            .map(cache::updateAndGet)
-            .map(results -> injectResults(node, results))
+            .map(batches -> createAllOperations(batches, claims))
             .orElseThrow();
     }
 
+    <V, R extends Resolvable<V>> List<R> uncachedResolvables(
+        List<R> resolvables,
+        Results<R, V> cached
+    ) {
+        final List<R> uncached = cached.size() == 0
+            ? resolvables
+            : resolvables.filter(r -> !cached.contains(r));
+        if (listener != EngineListener.NONE) {
+            final int misses = uncached.length();
+            listener.onCacheLookup(resolvables.length() - misses, misses);
+        }
+        return uncached;
+    }
+
+    void notifyIteration(int iteration, List<?> resolvables) {
+        if (listener != EngineListener.NONE) {
+            listener.onIteration(iteration, resolvables.length());
+        }
+    }
+
+    private static <R extends Resolvable<V>, V> Results<R, V> updateCache(
+        EngineCache cache,
+        Results<R, V> results
+    ) {
+        cache.update(results);
+        return results;
+    }
+
+    /**
+     * Refresh the stale entries served by the given cache in the background,
+     * bypassing selection strategy and request coalescing. If a refresh
+     * fails, the cache keeps serving the stale values until they expire.
+     * Stale entries this engine has no resolver for are returned to the
+     * cache, so an engine sharing it can refresh them.
+     */
+    @SuppressWarnings("unchecked")
+    <V, R extends Resolvable<V>> void refreshStale(EngineCache cache) {
+        final List<Resolvable<?>> drained = cache.drainStale();
+        if (drained.isEmpty()) {
+            return;
+        }
+        final List<Resolvable<?>> unknown = drained.filter(
+            r -> !registry.hasResolver(r)
+        );
+        if (unknown.isNotEmpty()) {
+            cache.restoreStale(unknown);
+        }
+        final List<R> stale = (List<R>) (List<?>) (
+            unknown.isEmpty()
+                ? drained
+                : drained.filter(registry::hasResolver)
+        );
+        if (stale.isEmpty()) {
+            return;
+        }
+        logRefresh(stale);
+        CompletableFuture
+            .supplyAsync(
+                () -> groupByKey(stale).bind(this::createOperations),
+                refreshExecutor
+            )
+            .thenCompose(resolutionStrategy::runAsync)
+            .thenApply(ResultsImpl::from)
+            .thenAccept(cache::update)
+            .whenComplete(
+                (v, error) -> {
+                    final Throwable cause = Futures.unwrap(error);
+                    if (cause != null) {
+                        logRefreshFailure(cause);
+                    }
+                    listener.onRefresh(stale.length(), cause);
+                }
+            );
+    }
+
+    private static <R, V> Results<R, V> merge(
+        Results<R, V> cached,
+        Results<R, V> results
+    ) {
+        return cached.size() == 0
+            ? results
+            : ResultsImpl.from(List.list(cached, results));
+    }
+
+    /**
+     * Retrieve the distinct resolvables of the given node. Composite nodes
+     * deduplicate and memoise their resolvables, so this does not need to
+     * walk unchanged subtrees again. Resolvables of other nodes are still
+     * deduplicated here, since custom nodes might not adhere to
+     * {@link Node#getResolvables()}.
+     */
     @SuppressWarnings("unchecked")
-    private <T, V, R extends Resolvable<V>> List<R> uniqueResolvables(
-        Node<T> node
+    <T, V, R extends Resolvable<V>> List<R> uniqueResolvables(Node<T> node) {
+        final List<Resolvable<?>> resolvables = node.getResolvables();
+        return (List<R>) (List<?>) (
+            hasDistinctResolvables(node) ? resolvables : distinct(resolvables)
+        );
+    }
+
+    private static boolean hasDistinctResolvables(Node<?> node) {
+        Node<?> n = node;
+        while (n instanceof MapNode || n instanceof FlatMapNode) {
+            n =
+                n instanceof MapNode
+                    ? ((MapNode<?, ?>) n).getInner()
+                    : ((FlatMapNode<?, ?>) n).getInner();
+        }
+        return (
+            n instanceof CollectionNode ||
+            n instanceof Tuple2 ||
+            n instanceof Tuple3 ||
+            n instanceof Tuple4
+        );
+    }
+
+    private static List<Resolvable<?>> distinct(
+        List<Resolvable<?>> resolvables
     ) {
-        final HashSet<R> s = HashSet.empty();
-        node.getResolvables().forEach(r -> s.set((R) r));
-        return s.toList();
+        if (resolvables.isEmpty() || resolvables.tail().isEmpty()) {
+            return resolvables;
+        }
+        final Set<Resolvable<?>> seen = new LinkedHashSet<>();
+        boolean duplicates = false;
+        for (Resolvable<?> r : resolvables) {
+            duplicates |= !seen.add(r);
+        }
+        return duplicates ? List.iterableList(seen) : resolvables;
     }
 
+    /**
+     * Run the given operations, waiting for subscriptions to resolvables in
+     * flight on the calling thread once all other operations are done. This
+     * way, they never occupy threads that the operations of other resolutions
+     * might be waiting for.
+     */
     private <R, V> Results<R, V> runOperations(
         List<Operation<R, V>> operations
     ) {
-        return ResultsImpl.from(resolutionStrategy.run(operations));
+        final List<Results<R, V>> results = resolutionStrategy.run(
+            operations.removeAll(InFlightRegistry::isSubscription)
+        );
+        final List<Results<R, V>> subscribed = operations
+            .filter(InFlightRegistry::isSubscription)
+            .map(Operation::runOperation);
+        return ResultsImpl.from(results.append(subscribed));
     }
 
-    private <V, R extends Resolvable<V>> List<List<R>> selectNextBatches(
+    <V, R extends Resolvable<V>> List<List<R>> selectNextBatches(
         List<R> resolvables
     ) {
-        final List<List<R>> allBatches = resolvables
-            .groupBy(Resolvable::getResolvableKey, Ord.stringOrd)
-            .values();
-        return selectionStrategy.select(allBatches);
+        return selectionStrategy.select(groupByKey(resolvables));
+    }
+
+    private static <V, R extends Resolvable<V>> List<List<R>> groupByKey(
+        List<R> resolvables
+    ) {
+        final Map<String, List<R>> groups = new TreeMap<>();
+        for (R r : resolvables) {
+            final String key = r.getResolvableKey();
+            final List<R> batch = groups.get(key);
+            groups.put(key, batch == null ? List.single(r) : batch.cons(r));
+        }
+        return List.iterableList(groups.values());
     }
 
     private <V, R extends Resolvable<V>> List<Operation<R, V>> createAllOperations(
-        List<List<R>> batches
+        List<List<R>> batches,
+        InFlightRegistry.Claims claims
     ) {
-        return batches.bind(this::createOperations);
+        return batches.bind(batch -> createOperations(batch, claims));
+    }
+
+    <V, R extends Resolvable<V>> List<Operation<R, V>> createOperations(
+        List<R> batch,
+        InFlightRegistry.Claims claims
+    ) {
+        return claims.coalesce(batch, this::createOperations);
     }
 
     private <V, R extends Resolvable<V>> List<Operation<R, V>> createOperations(
@@ -119,11 +552,61 @@ class EngineImpl<E> implements Engine {
         final ResolverDefinition<E, R, V> resolver = registry.getResolverOrThrow(
             batch.head()
         );
-        return resolver.createOperations(environment, batch);
+        final List<Operation<R, V>> ops = resolver.createOperations(
+            environment,
+            batch
+        );
+        if (listener == EngineListener.NONE) {
+            return ops;
+        }
+        final String key = resolver.getResolvableKey();
+        listener.onBatch(key, batch.length());
+        return ops.map(op -> timed(key, op));
+    }
+
+    /**
+     * Wrap the given operation to report its latency to the listener.
+     */
+    private <R, V> Operation<R, V> timed(String key, Operation<R, V> op) {
+        if (op instanceof Operation.Async) {
+            final Operation.Async<R, V> async = (Operation.Async<R, V>) op;
+            return Operation.async(
+                () -> {
+                    final long start = System.nanoTime();
+                    return Futures
+                        .start(async)
+                        .whenComplete(
+                            (results, error) ->
+                                listener.onOperation(
+                                    key,
+                                    System.nanoTime() - start,
+                                    results == null ? 0 : results.size(),
+                                    error
+                                )
+                        );
+                }
+            );
+        }
+        return () -> {
+            final long start = System.nanoTime();
+            try {
+                final Results<R, V> results = op.runOperation();
+                listener.onOperation(
+                    key,
+                    System.nanoTime() - start,
+                    results.size(),
+                    null
+                );
+                return results;
+            } catch (RuntimeException e) {
+                listener.onOperation(key, System.nanoTime() - start, 0, e);
+                throw e;
+            }
+        };
     }
 
     @SuppressWarnings("unchecked")
-    private <T, R extends Resolvable<V>, V> Node<T> injectResults(
+    <T, R extends Resolvable<V>, V> Node<T> injectResults(
         Node<T> node,
         Results<R, V> results
     ) {
@@ -131,42 +614,67 @@ class EngineImpl<E> implements Engine {
     }
 
     // --- Logging
-    private void logIteration(int iterationCount) {
-        log("--- Iteration #{}", iterationCount);
+    // Every hook checks whether the logger is enabled before boxing or
+    // traversing anything, so disabled logging does not allocate.
+    void logIteration(int iterationCount) {
+        if (logger.isEnabled()) {
+            logger.log("--- Iteration #{}", iterationCount);
+        }
     }
 
-    private <V, R extends Resolvable<V>> List<R> logResolvables(
-        List<R> resolvables
-    ) {
-        log("Resolvables: {}", resolvables);
+    void logDispatch(int generation) {
+        if (logger.isEnabled()) {
+            logger.log("--- Dispatch (generation #{})", generation);
+        }
+    }
+
+    <V, R extends Resolvable<V>> List<R> logResolvables(List<R> resolvables) {
+        if (logger.isEnabled()) {
+            logger.log("Resolvables: {}", resolvables);
+        }
         return resolvables;
     }
 
-    private <V, R extends Resolvable<V>> List<R> logUncachedResolvables(
+    <V, R extends Resolvable<V>> List<R> logUncachedResolvables(
         List<R> resolvables
     ) {
+        if (!logger.isEnabled()) {
+            return resolvables;
+        }
         if (resolvables.isEmpty()) {
-            log("=> All results are already cached.");
-        } else if (resolvables.length() == 1) {
-            log("=> 1 value needs to be resolved.");
+            logger.log("=> All results are already cached.");
+        } else if (resolvables.isSingle()) {
+            logger.log("=> 1 value needs to be resolved.");
         } else {
-            log("=> {} values need to be resolved.", resolvables.length());
+            logger.log(
+                "=> {} values need to be resolved.",
+                resolvables.length()
+            );
         }
         return resolvables;
     }
 
-    private <V, R extends Resolvable<V>> List<List<R>> logBatches(
+    <V, R extends Resolvable<V>> List<List<R>> logBatches(
         List<List<R>> batches
     ) {
-        if (batches.isNotEmpty()) {
-            batches
-                .zipIndex()
-                .forEach(p -> log("=> Batch[{}]: {}", p._2(), p._1()));
+        if (logger.isEnabled()) {
+            int index = 0;
+            for (List<R> batch : batches) {
+                logger.log("=> Batch[{}]: {}", index++, batch);
+            }
         }
         return batches;
     }
 
-    private void log(String fmt, Object... args) {
-        this.getLogger().log(fmt, args);
+    void logRefresh(List<?> stale) {
+        if (logger.isEnabled()) {
+            logger.log("=> Refreshing stale values: {}", stale);
+        }
+    }
+
+    void logRefreshFailure(Throwable error) {
+        if (logger.isEnabled()) {
+            logger.log("=> Refresh failed: {}", error);
+        }
     }
 }
@@ -4,10 +4,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Internal logger interface
+ * Internal logger interface. Callers are expected to check
+ * {@link #isEnabled()} before computing any log arguments, so a disabled
+ * logger costs neither allocations nor traversals. The fixed-arity methods
+ * avoid allocating varargs arrays.
  */
 interface EngineLogger {
-    void log(String fmt, Object... args);
+    boolean isEnabled();
+
+    void log(String msg);
+
+    void log(String fmt, Object arg);
+
+    void log(String fmt, Object arg1, Object arg2);
 
     /**
      * SLF4J-based logger (TRACE)
@@ -20,8 +29,23 @@ interface EngineLogger {
         }
 
         @Override
-        public void log(String fmt, Object... args) {
-            log.trace(fmt, args);
+        public boolean isEnabled() {
+            return log.isTraceEnabled();
+        }
+
+        @Override
+        public void log(String msg) {
+            log.trace(msg);
+        }
+
+        @Override
+        public void log(String fmt, Object arg) {
+            log.trace(fmt, arg);
+        }
+
+        @Override
+        public void log(String fmt, Object arg1, Object arg2) {
+            log.trace(fmt, arg1, arg2);
         }
     }
 
@@ -31,7 +55,22 @@ interface EngineLogger {
     static class NoOp implements EngineLogger {
 
         @Override
-        public void log(String fmt, Object... args) {
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void log(String msg) {
+            // do nothing
+        }
+
+        @Override
+        public void log(String fmt, Object arg) {
+            // do nothing
+        }
+
+        @Override
+        public void log(String fmt, Object arg1, Object arg2) {
             // do nothing
         }
     }
@@ -2,6 +2,7 @@ package haxlike.impl;
 
 import fj.Ord;
 import fj.data.TreeMap;
+import haxlike.Bulkhead;
 import haxlike.Resolvable;
 import haxlike.resolvers.ResolverDefinition;
 import lombok.AccessLevel;
@@ -13,9 +14,15 @@ import lombok.With;
 final class EngineRegistry<E> {
     // --- Data
     private final TreeMap<String, ResolverDefinition<? super E, ?, ?>> resolvers;
+    private final TreeMap<String, BatchWindow.Config> batchWindows;
+    private final TreeMap<String, Bulkhead> bulkheads;
 
     public EngineRegistry() {
-        this(TreeMap.empty(Ord.stringOrd));
+        this(
+            TreeMap.empty(Ord.stringOrd),
+            TreeMap.empty(Ord.stringOrd),
+            TreeMap.empty(Ord.stringOrd)
+        );
     }
 
     // --- Resolvers
@@ -27,16 +34,85 @@ final class EngineRegistry<E> {
             );
     }
 
-    @SuppressWarnings("unchecked")
+    public EngineRegistry<E> registerBatchWindow(
+        String resolvableKey,
+        BatchWindow.Config config
+    ) {
+        return this.withBatchWindows(batchWindows.set(resolvableKey, config));
+    }
+
+    public EngineRegistry<E> registerBulkhead(
+        String resolvableKey,
+        Bulkhead bulkhead
+    ) {
+        return this.withBulkheads(bulkheads.set(resolvableKey, bulkhead));
+    }
+
+    /**
+     * Create the registry used by a single engine, instantiating stateful
+     * resolver decorators like batch windows. Bulkheads are applied first, so
+     * they limit the operations of flushed windows.
+     * @return registry for a single engine
+     */
+    public EngineRegistry<E> prepare() {
+        final EngineRegistry<E> limited = bulkheads
+            .toList()
+            .foldLeft(
+                (registry, p) -> registry.decorate(p._1(), p._2()),
+                this
+            );
+        return batchWindows
+            .toList()
+            .foldLeft(
+                (registry, p) -> registry.decorate(p._1(), p._2()),
+                limited
+            );
+    }
+
+    private <R extends Resolvable<V>, V> EngineRegistry<E> decorate(
+        String resolvableKey,
+        Bulkhead bulkhead
+    ) {
+        final ResolverDefinition<E, R, V> resolver = getResolverOrThrow(
+            resolvableKey
+        );
+        return registerResolver(
+            new BulkheadResolverDefinition<>(resolver, bulkhead)
+        );
+    }
+
+    private <R extends Resolvable<V>, V> EngineRegistry<E> decorate(
+        String resolvableKey,
+        BatchWindow.Config config
+    ) {
+        final ResolverDefinition<E, R, V> resolver = getResolverOrThrow(
+            resolvableKey
+        );
+        return registerResolver(
+            new BatchWindow<>(resolver, config)
+        );
+    }
+
+    public boolean hasResolver(Resolvable<?> proto) {
+        return resolvers.contains(proto.getResolvableKey());
+    }
+
     public <R extends Resolvable<V>, V> ResolverDefinition<E, R, V> getResolverOrThrow(
         R proto
+    ) {
+        return getResolverOrThrow(proto.getResolvableKey());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R extends Resolvable<V>, V> ResolverDefinition<E, R, V> getResolverOrThrow(
+        String resolvableKey
     ) {
         return (ResolverDefinition<E, R, V>) resolvers
-            .get(proto.getResolvableKey())
+            .get(resolvableKey)
             .orSome(
                 () -> {
                     throw new IllegalStateException(
-                        "No resolver for key: " + proto.getResolvableKey()
+                        "No resolver for key: " + resolvableKey
                     );
                 }
             );
@@ -0,0 +1,74 @@
+package haxlike.impl;
+
+import fj.data.List;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Internal helpers for {@link CompletableFuture} composition.
+ */
+public final class Futures {
+
+    /**
+     * Combine a list of futures into a future of the in-order list of results.
+     * @param <T> result class
+     * @param futures futures to combine
+     * @return a future that completes once all given futures have completed
+     */
+    public static <T> CompletableFuture<List<T>> sequence(
+        List<CompletableFuture<T>> futures
+    ) {
+        return CompletableFuture
+            .allOf(futures.toJavaList().toArray(new CompletableFuture<?>[0]))
+            .thenApply(v -> futures.map(CompletableFuture::join));
+    }
+
+    /**
+     * Start an asynchronous operation, capturing synchronous failures in the
+     * resulting future.
+     * @param <R> resolvable class
+     * @param <V> resolvable value class
+     * @param op operation to start
+     * @return a future representing the operation's results
+     */
+    public static <R, V> CompletableFuture<Results<R, V>> start(
+        Operation.Async<R, V> op
+    ) {
+        try {
+            return op.runOperationAsync().toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Compute a value, capturing failures in the resulting future.
+     * @param <T> result class
+     * @param f function computing the value
+     * @return a completed future of the value or failure
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> f) {
+        try {
+            return CompletableFuture.completedFuture(f.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Unwrap the cause of a {@link CompletionException}, as passed to
+     * callbacks of dependent futures.
+     * @param error failure of a future
+     * @return the underlying failure
+     */
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error;
+    }
+
+    private Futures() {}
+}
@@ -0,0 +1,219 @@
+package haxlike.impl;
+
+import fj.F;
+import fj.P;
+import fj.P2;
+import fj.data.List;
+import fj.data.Option;
+import haxlike.Resolvable;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of resolvables currently being fetched by any resolution of an
+ * engine. A resolution that encounters a resolvable fetched by another one
+ * subscribes to the pending result instead of fetching it again.
+ * <p>
+ * Resolvables are claimed until the operations fetching them complete.
+ * Claims that have not been fulfilled by then, e.g. because an operation
+ * failed or did not return a value, are completed without a value, causing
+ * subscribers to fetch the resolvable themselves in their next iteration.
+ * Claims must never be held while waiting for other resolutions: two
+ * resolutions subscribing to each other's claims would wait forever.
+ */
+final class InFlightRegistry {
+    private final boolean enabled;
+    private final Map<Resolvable<?>, Pending> inFlight = new ConcurrentHashMap<>();
+
+    private InFlightRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    static InFlightRegistry create() {
+        return new InFlightRegistry(true);
+    }
+
+    static InFlightRegistry disabled() {
+        return new InFlightRegistry(false);
+    }
+
+    Claims claims() {
+        return new Claims();
+    }
+
+    /**
+     * Check whether an operation only waits for resolvables fetched by other
+     * resolutions.
+     * @param op operation to check
+     * @return true if the operation is a subscription
+     */
+    static boolean isSubscription(Operation<?, ?> op) {
+        return op instanceof Subscription;
+    }
+
+    /**
+     * Claims of a single iteration.
+     */
+    final class Claims {
+        private final Map<Resolvable<?>, Pending> owned = new ConcurrentHashMap<>();
+
+        /**
+         * Create the operations for the given batch, only fetching
+         * resolvables that are not in flight yet and subscribing to the
+         * others.
+         * @param batch batch of resolvables
+         * @param createOperations function creating the actual operations
+         * @return operations fetching or waiting for the batch
+         */
+        <V, R extends Resolvable<V>> List<Operation<R, V>> coalesce(
+            List<R> batch,
+            F<List<R>, List<Operation<R, V>>> createOperations
+        ) {
+            if (!enabled) {
+                return createOperations.f(batch);
+            }
+
+            final ArrayList<R> claimed = new ArrayList<>();
+            final ArrayList<P2<R, Pending>> subscribed = new ArrayList<>();
+            for (R r : batch) {
+                final Pending future = new Pending();
+                final Pending existing = inFlight.putIfAbsent(r, future);
+                if (existing == null) {
+                    owned.put(r, future);
+                    claimed.add(r);
+                } else {
+                    subscribed.add(P.p(r, existing));
+                }
+            }
+
+            final List<Operation<R, V>> ops = claimed.isEmpty()
+                ? List.nil()
+                : publishing(
+                    claimed,
+                    createOperations.f(List.iterableList(claimed))
+                );
+            return subscribed.isEmpty()
+                ? ops
+                : ops.snoc(new Subscription<>(List.iterableList(subscribed)));
+        }
+
+        /**
+         * Release all claims that have not been fulfilled, including those
+         * of operations that have never been run.
+         */
+        void release() {
+            owned.forEach((r, future) -> release(r));
+        }
+
+        private void release(Resolvable<?> r) {
+            final Pending future = owned.remove(r);
+            if (future != null) {
+                inFlight.remove(r, future);
+                future.complete(Option.none());
+            }
+        }
+
+        /**
+         * Wrap the operations fetching the given claimed resolvables, so
+         * that results are published as soon as each operation completes,
+         * and remaining claims are released once all of them have completed.
+         */
+        private <V, R extends Resolvable<V>> List<Operation<R, V>> publishing(
+            ArrayList<R> claimed,
+            List<Operation<R, V>> ops
+        ) {
+            final AtomicInteger remaining = new AtomicInteger(ops.length());
+            final Runnable done = () -> {
+                if (remaining.decrementAndGet() == 0) {
+                    claimed.forEach(this::release);
+                }
+            };
+            if (ops.isEmpty()) {
+                claimed.forEach(this::release);
+            }
+            return ops.map(op -> publishing(op, done));
+        }
+
+        private <V, R extends Resolvable<V>> Operation<R, V> publishing(
+            Operation<R, V> op,
+            Runnable done
+        ) {
+            if (op instanceof Operation.Async) {
+                final Operation.Async<R, V> async = (Operation.Async<R, V>) op;
+                return Operation.async(
+                    () ->
+                        Futures
+                            .start(async)
+                            .thenApply(this::publish)
+                            .whenComplete((results, error) -> done.run())
+                );
+            }
+            return () -> {
+                try {
+                    return publish(op.runOperation());
+                } finally {
+                    done.run();
+                }
+            };
+        }
+
+        private <V, R extends Resolvable<V>> Results<R, V> publish(
+            Results<R, V> results
+        ) {
+            results.forEach(
+                (r, value) -> {
+                    final Pending future = owned.remove(r);
+                    if (future != null) {
+                        inFlight.remove(r, future);
+                        // a null value marks the resolvable as absent
+                        future.complete(Option.some(value));
+                    }
+                }
+            );
+            return results;
+        }
+    }
+
+    /**
+     * Result of a resolvable in flight, empty if it could not be fetched and
+     * containing null if it is absent.
+     */
+    private static final class Pending
+        extends CompletableFuture<Option<Object>> {}
+
+    /**
+     * Operation waiting for resolvables fetched by other resolutions.
+     */
+    private static final class Subscription<R, V>
+        implements Operation.Async<R, V> {
+        private final List<P2<R, Pending>> pending;
+
+        Subscription(List<P2<R, Pending>> pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletionStage<Results<R, V>> runOperationAsync() {
+            return Futures
+                .sequence(pending.map(p -> (CompletableFuture<?>) p._2()))
+                .thenApply(
+                    done -> {
+                        final Map<R, V> results = new HashMap<>();
+                        for (P2<R, Pending> p : pending) {
+                            final R r = p._1();
+                            p._2().join().forEach(v -> results.put(r, (V) v));
+                        }
+                        return new ResultsImpl<>(results);
+                    }
+                );
+        }
+    }
+}
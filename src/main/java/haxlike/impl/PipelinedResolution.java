@@ -0,0 +1,265 @@
+package haxlike.impl;
+
+import fj.data.List;
+import haxlike.EngineCache;
+import haxlike.Node;
+import haxlike.Resolvable;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A single pipelined resolution. Instead of waiting for all operations of an
+ * iteration to finish, results are injected as soon as an operation completes.
+ * Resolvables exposed that way are dispatched once the coalescing window has
+ * passed, allowing them to be batched with those exposed by other operations
+ * completing in the meantime.
+ * <p>
+ * Every dispatch is assigned a generation, i.e. the number of dispatches it
+ * transitively depends on. Injecting cached values does not start a new
+ * generation, unless the node does not change. The engine's maximum
+ * iteration count applies to generations.
+ *
+ * @param <E> environment class
+ * @param <T> class of the value to resolve
+ */
+final class PipelinedResolution<E, T> {
+    private final EngineImpl<E> engine;
+    private final EngineCache cache;
+    private final Duration coalescingWindow;
+    private final Executor delayedExecutor;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    // --- Guarded by 'this'
+    private final Set<Resolvable<?>> inFlight = new HashSet<>();
+    private final Set<InFlightBatch> batches = new HashSet<>();
+    private Node<T> node;
+    private int running = 0;
+    private int generation = 1;
+    private boolean dispatchScheduled = false;
+
+    PipelinedResolution(
+        EngineImpl<E> engine,
+        Node<T> node,
+        EngineCache cache
+    ) {
+        this.engine = engine;
+        this.node = node;
+        this.cache = cache;
+        this.coalescingWindow = engine.getCoalescingWindow();
+        this.delayedExecutor =
+            CompletableFuture.delayedExecutor(
+                coalescingWindow.toNanos(),
+                TimeUnit.NANOSECONDS
+            );
+    }
+
+    CompletableFuture<T> start() {
+        dispatch();
+        return result;
+    }
+
+    // --- Dispatch
+    private void dispatch() {
+        final List<Runnable> starts;
+        synchronized (this) {
+            dispatchScheduled = false;
+            if (result.isDone()) {
+                return;
+            }
+            starts = guard(this::prepareDispatch);
+        }
+        starts.forEach(Runnable::run);
+    }
+
+    private void scheduleDispatch() {
+        if (!dispatchScheduled) {
+            dispatchScheduled = true;
+            delayedExecutor.execute(this::dispatch);
+        }
+    }
+
+    /**
+     * Inject cached values and create the tasks starting all operations that
+     * can be run right now. If no operation is running and there is nothing
+     * to dispatch, empty results are injected, allowing pending nodes to
+     * collapse, and the node is retried. Rounds that do not change the node
+     * count as a generation, so a node that never resolves eventually
+     * exceeds the maximum iteration count instead of looping forever.
+     */
+    private <V, R extends Resolvable<V>> List<Runnable> prepareDispatch() {
+        while (true) {
+            if (node.isResolved()) {
+                result.complete(node.getValue());
+                return List.nil();
+            }
+
+            engine.verifyMaxDepth(generation);
+            engine.logDispatch(generation);
+
+            final List<R> pending = engine
+                .<T, V, R>uniqueResolvables(node)
+                .filter(r -> !inFlight.contains(r));
+            engine.notifyIteration(generation, pending);
+            final Results<R, V> cached = cache.getCached(pending);
+            engine.refreshStale(cache);
+            final List<R> uncached = engine.uncachedResolvables(
+                pending,
+                cached
+            );
+            if (uncached.length() < pending.length()) {
+                injectCached(cached);
+                continue;
+            }
+
+            final List<Runnable> starts = engine
+                .logBatches(engine.selectNextBatches(uncached))
+                .bind(this::prepareBatch);
+            if (starts.isNotEmpty() || running > 0) {
+                return starts;
+            }
+            injectCached(cached);
+        }
+    }
+
+    private <V, R extends Resolvable<V>> void injectCached(
+        Results<R, V> cached
+    ) {
+        final Node<T> injected = engine.injectResults(node, cached);
+        if (injected == node) {
+            generation++;
+        }
+        node = injected;
+    }
+
+    private <V, R extends Resolvable<V>> List<Runnable> prepareBatch(
+        List<R> resolvables
+    ) {
+        final InFlightRegistry.Claims claims = engine
+            .getInFlightRegistry()
+            .claims();
+        final List<Operation<R, V>> ops = engine.createOperations(
+            resolvables,
+            claims
+        );
+        if (ops.isEmpty()) {
+            claims.release();
+            return List.nil();
+        }
+
+        final InFlightBatch batch = new InFlightBatch(
+            resolvables,
+            claims,
+            ops.length(),
+            generation
+        );
+        resolvables.forEach(inFlight::add);
+        batches.add(batch);
+        running += ops.length();
+        return ops.map(op -> () -> run(op, batch));
+    }
+
+    // --- Completion
+    private <V, R extends Resolvable<V>> void run(
+        Operation<R, V> op,
+        InFlightBatch batch
+    ) {
+        try {
+            engine
+                .getResolutionStrategy()
+                .runAsync(List.single(op))
+                .whenComplete(
+                    (results, error) -> complete(batch, results, error)
+                );
+        } catch (RuntimeException e) {
+            complete(batch, null, e);
+        }
+    }
+
+    private <V, R extends Resolvable<V>> void complete(
+        InFlightBatch batch,
+        List<Results<R, V>> results,
+        Throwable error
+    ) {
+        final List<Runnable> starts;
+        synchronized (this) {
+            running--;
+            if (error != null) {
+                result.completeExceptionally(error);
+            }
+            if (result.isDone()) {
+                releaseAll();
+                return;
+            }
+            starts = guard(() -> inject(batch, results));
+        }
+        starts.forEach(Runnable::run);
+    }
+
+    private <V, R extends Resolvable<V>> List<Runnable> inject(
+        InFlightBatch batch,
+        List<Results<R, V>> results
+    ) {
+        if (--batch.remaining == 0) {
+            batch.resolvables.forEach(inFlight::remove);
+            batch.claims.release();
+            batches.remove(batch);
+        }
+        final Results<R, V> fresh = ResultsImpl.from(results);
+        cache.update(fresh);
+        node = engine.injectResults(node, fresh);
+        generation = Math.max(generation, batch.generation + 1);
+
+        final boolean canCoalesce = running > 0 && !coalescingWindow.isZero();
+        if (canCoalesce && !node.isResolved()) {
+            scheduleDispatch();
+            return List.nil();
+        }
+        return prepareDispatch();
+    }
+
+    // --- Helpers
+    private List<Runnable> guard(Supplier<List<Runnable>> f) {
+        try {
+            return f.get();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            releaseAll();
+            return List.nil();
+        }
+    }
+
+    private void releaseAll() {
+        batches.forEach(b -> b.claims.release());
+        batches.clear();
+    }
+
+    /**
+     * Resolvables of a single batch, tracked until all of the batch's
+     * operations have completed.
+     */
+    private static final class InFlightBatch {
+        private final List<? extends Resolvable<?>> resolvables;
+        private final InFlightRegistry.Claims claims;
+        private final int generation;
+        private int remaining;
+
+        InFlightBatch(
+            List<? extends Resolvable<?>> resolvables,
+            InFlightRegistry.Claims claims,
+            int remaining,
+            int generation
+        ) {
+            this.resolvables = resolvables;
+            this.claims = claims;
+            this.remaining = remaining;
+            this.generation = generation;
+        }
+    }
+}
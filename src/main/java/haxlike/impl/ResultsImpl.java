@@ -6,49 +6,115 @@ import fj.data.HashMap;
 import fj.data.List;
 import fj.data.Option;
 import haxlike.resolvers.Results;
+import java.util.Map;
 import java.util.function.BiConsumer;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 
+/**
+ * Results backed by a {@link java.util.HashMap}, used by the engine and its
+ * caches to collect results. The map is owned by the results and must not be
+ * modified once they have been created.
+ */
 @Value
 @RequiredArgsConstructor
 public class ResultsImpl<R, V> implements Results<R, V> {
-    private final HashMap<R, V> values;
+    @Getter(AccessLevel.NONE)
+    private final Map<R, V> values;
+
+    // --- Cache Key Mask
+    @NonFinal
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile long keyMask;
+
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile boolean keyMaskComputed;
 
     public ResultsImpl(List<P2<R, V>> values) {
-        this(HashMap.iterableHashMap(values));
+        this(new java.util.HashMap<>());
+        values.forEach(p -> this.values.put(p._1(), p._2()));
     }
 
     public ResultsImpl() {
-        this(HashMap.hashMap());
+        this(new java.util.HashMap<>());
     }
 
     @Override
     public Option<V> get(R resolvable) {
-        return values.get(resolvable);
+        return Option.fromNull(values.get(resolvable));
+    }
+
+    @Override
+    public boolean contains(R resolvable) {
+        return values.containsKey(resolvable);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
     }
 
-    private void forEach(BiConsumer<R, V> f) {
-        for (R r : values.keys()) {
-            f.accept(r, values.get(r).some());
+    @Override
+    public long getKeyMask() {
+        if (!keyMaskComputed) {
+            long mask = 0L;
+            for (R r : values.keySet()) {
+                mask |= Results.keyBit(r);
+            }
+            keyMask = mask;
+            keyMaskComputed = true;
         }
+        return keyMask;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super R, ? super V> f) {
+        values.forEach(f);
     }
 
     @Override
     public <T> Results<T, V> mapKeys(F<R, T> f) {
-        final HashMap<T, V> target = HashMap.hashMap();
-        forEach((k, v) -> target.set(f.f(k), v));
+        final Map<T, V> target = new java.util.HashMap<>(capacity(size()));
+        values.forEach((k, v) -> target.put(f.f(k), v));
         return new ResultsImpl<>(target);
     }
 
     @Override
     public void into(HashMap<R, V> target) {
-        forEach(target::set);
+        values.forEach(target::set);
     }
 
+    /**
+     * Combine the given results. A single instance is returned as is, so
+     * results of a single operation are injected without being copied.
+     */
     static <R, V> Results<R, V> from(List<Results<R, V>> results) {
-        final HashMap<R, V> values = HashMap.hashMap();
-        results.forEach(r -> r.into(values));
+        if (results.isSingle()) {
+            return results.head();
+        }
+        int size = 0;
+        for (Results<R, V> r : results) {
+            size += r.size();
+        }
+        final Map<R, V> values = new java.util.HashMap<>(capacity(size));
+        results.forEach(r -> r.forEach(values::put));
         return new ResultsImpl<>(values);
     }
+
+    /**
+     * Initial capacity of a {@link java.util.HashMap} holding the given
+     * number of entries without resizing.
+     */
+    public static int capacity(int size) {
+        return (int) Math.min(Integer.MAX_VALUE, size * 4L / 3 + 1);
+    }
 }
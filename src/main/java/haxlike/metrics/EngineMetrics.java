@@ -0,0 +1,197 @@
+package haxlike.metrics;
+
+import fj.Ord;
+import fj.data.Option;
+import fj.data.TreeMap;
+import haxlike.EngineListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * {@link EngineListener} recording resolution metrics in memory, without any
+ * dependency on a metrics library. All durations are in nanoseconds.
+ * <p>
+ * A single instance can be shared between engines to aggregate their
+ * metrics. Use the per-resolver metrics to size batches and spot slow
+ * resolvers.
+ */
+public class EngineMetrics implements EngineListener {
+    private final LongAdder resolutions = new LongAdder();
+    private final LongAdder failedResolutions = new LongAdder();
+
+    @Getter
+    private final LatencyHistogram resolutionLatency = new LatencyHistogram();
+
+    private final LongAdder iterations = new LongAdder();
+
+    @Getter
+    private final LatencyHistogram resolvablesPerIteration = new LatencyHistogram();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+
+    private final Map<String, ResolverMetrics> resolvers = new ConcurrentHashMap<>();
+
+    @Override
+    public void onResolution(long nanos, Throwable error) {
+        resolutions.increment();
+        if (error != null) {
+            failedResolutions.increment();
+        }
+        resolutionLatency.record(nanos);
+    }
+
+    @Override
+    public void onIteration(int iteration, int resolvables) {
+        iterations.increment();
+        resolvablesPerIteration.record(resolvables);
+    }
+
+    @Override
+    public void onCacheLookup(int hits, int misses) {
+        cacheHits.add(hits);
+        cacheMisses.add(misses);
+    }
+
+    @Override
+    public void onBatch(String resolvableKey, int size) {
+        resolver(resolvableKey).batchSizes.record(size);
+    }
+
+    @Override
+    public void onOperation(
+        String resolvableKey,
+        long nanos,
+        int resultCount,
+        Throwable error
+    ) {
+        final ResolverMetrics metrics = resolver(resolvableKey);
+        metrics.operationLatency.record(nanos);
+        if (error != null) {
+            metrics.failedOperations.increment();
+        }
+    }
+
+    @Override
+    public void onRefresh(int resolvables, Throwable error) {
+        refreshes.increment();
+        if (error != null) {
+            failedRefreshes.increment();
+        }
+    }
+
+    /**
+     * Return the number of resolutions.
+     * @return number of resolutions, including failed ones
+     */
+    public long getResolutions() {
+        return resolutions.sum();
+    }
+
+    /**
+     * Return the number of failed resolutions.
+     * @return number of failed resolutions
+     */
+    public long getFailedResolutions() {
+        return failedResolutions.sum();
+    }
+
+    /**
+     * Return the number of iterations of all resolutions.
+     * @return number of iterations
+     */
+    public long getIterations() {
+        return iterations.sum();
+    }
+
+    /**
+     * Return the number of resolvables found in the cache.
+     * @return number of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Return the number of resolvables not found in the cache.
+     * @return number of cache misses
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Return the number of background refreshes of stale cache entries.
+     * @return number of refreshes, including failed ones
+     */
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Return the number of failed background refreshes.
+     * @return number of failed refreshes
+     */
+    public long getFailedRefreshes() {
+        return failedRefreshes.sum();
+    }
+
+    /**
+     * Return the ratio of resolvables found in the cache.
+     * @return cache hit ratio between 0 and 1, or 0 if there were no lookups
+     */
+    public double getCacheHitRatio() {
+        final long hits = cacheHits.sum();
+        final long total = hits + cacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Return the metrics of the resolver with the given key.
+     * @param resolvableKey key of the resolver
+     * @return the resolver's metrics, if it has been used
+     */
+    public Option<ResolverMetrics> getResolver(String resolvableKey) {
+        return Option.fromNull(resolvers.get(resolvableKey));
+    }
+
+    /**
+     * Return the metrics of all resolvers that have been used.
+     * @return resolver metrics by key
+     */
+    public TreeMap<String, ResolverMetrics> getResolvers() {
+        return TreeMap.fromMutableMap(Ord.stringOrd, resolvers);
+    }
+
+    private ResolverMetrics resolver(String resolvableKey) {
+        return resolvers.computeIfAbsent(
+            resolvableKey,
+            k -> new ResolverMetrics()
+        );
+    }
+
+    /**
+     * Metrics of a single resolver.
+     */
+    public static class ResolverMetrics {
+        @Getter
+        private final LatencyHistogram batchSizes = new LatencyHistogram();
+
+        @Getter
+        private final LatencyHistogram operationLatency = new LatencyHistogram();
+
+        private final LongAdder failedOperations = new LongAdder();
+
+        /**
+         * Return the number of failed operations of the resolver.
+         * @return number of failed operations
+         */
+        public long getFailedOperations() {
+            return failedOperations.sum();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package haxlike.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, e.g. latencies in nanoseconds
+ * or batch sizes. Like HdrHistogram, it uses log-linear buckets: every power
+ * of two is split into 8 linear sub-buckets, so recorded values are accurate
+ * to 3 significant bits (a relative error of at most 12.5%), using a fixed
+ * amount of memory regardless of the range of values.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS =
+        (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a single value. Negative values are recorded as zero.
+     * @param value value to record
+     */
+    public void record(long value) {
+        final long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        final long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Return the value below or at which the given percentage of recorded
+     * values lies, e.g. 99.0 for the 99th percentile. The result is the
+     * highest value of the respective bucket, but never exceeds the maximum
+     * recorded value.
+     * @param percentile percentile between 0 and 100
+     * @return the value at the given percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        final long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        final double clamped = Math.min(100, Math.max(0, percentile));
+        final long rank = Math.max(1, (long) Math.ceil(clamped * total / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "LatencyHistogram(count=%d, mean=%.1f, p50=%d, p99=%d, max=%d)",
+            getCount(),
+            getMean(),
+            getValueAtPercentile(50),
+            getValueAtPercentile(99),
+            getMax()
+        );
+    }
+
+    // --- Buckets
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long sub = index % SUB_BUCKETS;
+        final long lowest = (SUB_BUCKETS + sub) << shift;
+        return lowest + ((1L << shift) - 1);
+    }
+}
@@ -4,6 +4,11 @@ import fj.data.List;
 import haxlike.Node;
 import haxlike.Resolvable;
 import haxlike.resolvers.Results;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 
 @Value
@@ -11,20 +16,39 @@ public class CollectionNode<T> implements Node<List<T>> {
     List<? extends Node<T>> childNodes;
     boolean resolved;
 
+    // --- Cache Index
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    AtomicReference<ResolvableIndex> index = new AtomicReference<>();
+
     public CollectionNode(List<? extends Node<T>> childNodes) {
         this.childNodes = childNodes;
         this.resolved = childNodes.forall(Node::isResolved);
     }
 
+    private ResolvableIndex index() {
+        return index.updateAndGet(
+            value -> value == null ? ResolvableIndex.of(childNodes) : value
+        );
+    }
+
     @Override
     public List<Resolvable<?>> getResolvables() {
-        return childNodes.bind(Node::getResolvables);
+        return index().getResolvables();
     }
 
     @Override
     public Node<List<T>> injectValues(Results<Resolvable<?>, ?> results) {
+        final ResolvableIndex.Positions affected = index().affectedChildren(
+            results
+        );
+        if (affected.isEmpty()) {
+            return this;
+        }
+
         final CollectionNode<T> newNode = new CollectionNode<>(
-            childNodes.map(node -> node.injectValues(results))
+            ResolvableIndex.inject(childNodes, affected, results)
         );
 
         return ValueNode.ifResolved(newNode);
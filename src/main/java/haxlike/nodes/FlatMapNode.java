@@ -21,6 +21,9 @@ public class FlatMapNode<T, R> implements Node<R> {
     @Override
     public Node<R> injectValues(Results<Resolvable<?>, ?> results) {
         final Node<T> result = inner.injectValues(results);
+        if (result == inner) {
+            return this;
+        }
         return result.isResolved()
             ? f.f(result.getValue())
             : new FlatMapNode<>(result, f);
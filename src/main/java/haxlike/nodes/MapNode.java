@@ -19,7 +19,8 @@ public class MapNode<T, R> implements Node<R> {
 
     @Override
     public Node<R> injectValues(Results<Resolvable<?>, ?> results) {
-        return new MapNode<>(inner.injectValues(results), f);
+        final Node<T> injected = inner.injectValues(results);
+        return injected == inner ? this : new MapNode<>(injected, f);
     }
 
     @Override
@@ -0,0 +1,304 @@
+package haxlike.nodes;
+
+import fj.data.List;
+import haxlike.Node;
+import haxlike.Resolvable;
+import haxlike.resolvers.Results;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index of the distinct resolvables contained in the children of a composite
+ * node, mapping each of them to the positions of the children they appear in.
+ * This allows composite nodes to only inject results into the children that
+ * are actually affected by them, instead of walking the whole subtree.
+ * <p>
+ * Indices are immutable and are meant to be computed once per node.
+ */
+public final class ResolvableIndex {
+    private static final int[] NO_POSITIONS = new int[0];
+
+    /**
+     * Distinct resolvables, in order of their first appearance.
+     */
+    private final Resolvable<?>[] keys;
+    private final int size;
+
+    /**
+     * Position of the first child each resolvable appears in, and of all
+     * further children, if any.
+     */
+    private final int[] firstPositions;
+    private final int[][] morePositions;
+
+    private final List<Resolvable<?>> resolvables;
+
+    /**
+     * Bloom filter of all resolvables, see {@link Results#getKeyMask()}.
+     */
+    private final long mask;
+
+    /**
+     * Positions of unresolved children without any resolvables. These need
+     * to be injected regardless of the results, allowing them to collapse
+     * into a resolved node.
+     */
+    private final Positions pending;
+
+    private ResolvableIndex(Builder builder) {
+        this.keys = builder.keys;
+        this.size = builder.size;
+        this.firstPositions = builder.firstPositions;
+        this.morePositions = builder.morePositions;
+        this.mask = builder.mask;
+        this.pending = new Positions(builder.pending);
+
+        List<Resolvable<?>> list = List.nil();
+        for (int i = size - 1; i >= 0; i--) {
+            list = list.cons(keys[i]);
+        }
+        this.resolvables = list;
+    }
+
+    /**
+     * Create an index for the given child nodes.
+     * @param children child nodes of a composite node
+     * @return index of the children's resolvables
+     */
+    public static ResolvableIndex of(List<? extends Node<?>> children) {
+        int expected = 0;
+        for (Node<?> child : children) {
+            expected +=
+                child instanceof Resolvable
+                    ? 1
+                    : child.getResolvables().length();
+        }
+
+        final Builder builder = new Builder(expected);
+        int position = 0;
+        for (Node<?> child : children) {
+            if (child instanceof Resolvable) {
+                builder.add((Resolvable<?>) child, position);
+            } else if (!child.isResolved()) {
+                final List<Resolvable<?>> childResolvables =
+                    child.getResolvables();
+                if (childResolvables.isEmpty()) {
+                    builder.pending.set(position);
+                }
+                for (Resolvable<?> r : childResolvables) {
+                    builder.add(r, position);
+                }
+            }
+            position++;
+        }
+        return new ResolvableIndex(builder);
+    }
+
+    /**
+     * Open-addressing hash table from resolvables to the positions of the
+     * children they appear in, avoiding an entry and an array per
+     * resolvable.
+     */
+    private static final class Builder {
+        private Resolvable<?>[] keys;
+        private int[] firstPositions;
+        private int[][] morePositions;
+        private int size = 0;
+        private long mask = 0L;
+        private final BitSet pending = new BitSet();
+
+        /**
+         * Indices of keys, plus one so zero marks free slots.
+         */
+        private int[] table;
+
+        Builder(int expected) {
+            int capacity = 8;
+            while (capacity < expected) {
+                capacity *= 2;
+            }
+            keys = new Resolvable<?>[capacity];
+            firstPositions = new int[capacity];
+            morePositions = new int[capacity][];
+            table = new int[capacity * 2];
+        }
+
+        void add(Resolvable<?> r, int position) {
+            final int h = r.hashCode();
+            final int slot = slotOf(r, h);
+            final int index = table[slot] - 1;
+            if (index >= 0) {
+                addPosition(index, position);
+                return;
+            }
+            if (size == keys.length) {
+                grow();
+            }
+            keys[size] = r;
+            firstPositions[size] = position;
+            mask |= Results.hashBit(h);
+            final int target = size * 2 >= table.length ? rehash(h, r) : slot;
+            table[target] = ++size;
+        }
+
+        private void addPosition(int index, int position) {
+            final int[] more = morePositions[index];
+            final int last = more == null
+                ? firstPositions[index]
+                : more[more.length - 1];
+            if (last == position) {
+                return;
+            }
+            if (more == null) {
+                morePositions[index] = new int[] { position };
+            } else {
+                final int[] result = Arrays.copyOf(more, more.length + 1);
+                result[more.length] = position;
+                morePositions[index] = result;
+            }
+        }
+
+        private int slotOf(Resolvable<?> r, int h) {
+            final int tableMask = table.length - 1;
+            int slot = (h ^ (h >>> 16)) & tableMask;
+            while (table[slot] != 0 && !keys[table[slot] - 1].equals(r)) {
+                slot = (slot + 1) & tableMask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            final int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            firstPositions = Arrays.copyOf(firstPositions, capacity);
+            morePositions = Arrays.copyOf(morePositions, capacity);
+        }
+
+        /**
+         * Double the table, re-inserting all keys but the one being added,
+         * and return the slot for the latter.
+         */
+        private int rehash(int h, Resolvable<?> r) {
+            table = new int[table.length * 2];
+            for (int i = 0; i < size; i++) {
+                table[slotOf(keys[i], keys[i].hashCode())] = i + 1;
+            }
+            return slotOf(r, h);
+        }
+    }
+
+    /**
+     * Retrieve the distinct resolvables of all children, in order of their
+     * first appearance.
+     * @return list of distinct resolvables
+     */
+    public List<Resolvable<?>> getResolvables() {
+        return resolvables;
+    }
+
+    /**
+     * Determine the positions of all children that need to be injected with
+     * the given results.
+     * @param results results to be injected
+     * @return positions of affected children
+     */
+    public Positions affectedChildren(Results<Resolvable<?>, ?> results) {
+        final long resultsMask = results.getKeyMask();
+        if ((mask & resultsMask) == 0L) {
+            return pending;
+        }
+
+        final BitSet affected = (BitSet) pending.bits.clone();
+        for (int i = 0; i < size; i++) {
+            final Resolvable<?> r = keys[i];
+            if (mightContain(resultsMask, r) && results.contains(r)) {
+                affected.set(firstPositions[i]);
+                final int[] more = morePositions[i];
+                for (int p : more == null ? NO_POSITIONS : more) {
+                    affected.set(p);
+                }
+            }
+        }
+        return new Positions(affected);
+    }
+
+    private static boolean mightContain(long resultsMask, Resolvable<?> r) {
+        return (Results.keyBit(r) & resultsMask) != 0L;
+    }
+
+    /**
+     * Inject results into the affected children, retaining all others.
+     * @param <T> child value class
+     * @param children children of a composite node
+     * @param affected positions of affected children
+     * @param results results to be injected
+     * @return list of children with results injected
+     */
+    public static <T> List<Node<T>> inject(
+        List<? extends Node<T>> children,
+        Positions affected,
+        Results<Resolvable<?>, ?> results
+    ) {
+        final ArrayList<Node<T>> injected = new ArrayList<>();
+        int position = 0;
+        for (Node<T> child : children) {
+            injected.add(inject(child, position++, affected, results));
+        }
+        return List.iterableList(injected);
+    }
+
+    /**
+     * Inject results into the given child, if it is affected.
+     * @param <T> child value class
+     * @param child child of a composite node
+     * @param position position of the child
+     * @param affected positions of affected children
+     * @param results results to be injected
+     * @return the child with results injected
+     */
+    public static <T> Node<T> inject(
+        Node<T> child,
+        int position,
+        Positions affected,
+        Results<Resolvable<?>, ?> results
+    ) {
+        return affected.contains(position)
+            ? child.injectValues(results)
+            : child;
+    }
+
+    /**
+     * Immutable set of child positions, see
+     * {@link #affectedChildren(Results)}.
+     */
+    public static final class Positions {
+        private final BitSet bits;
+
+        private Positions(BitSet bits) {
+            this.bits = bits;
+        }
+
+        /**
+         * Check whether the given position is part of the set.
+         * @param position position of a child
+         * @return true if the position is part of the set
+         */
+        public boolean contains(int position) {
+            return bits.get(position);
+        }
+
+        /**
+         * Check whether the set is empty.
+         * @return true if no position is part of the set
+         */
+        public boolean isEmpty() {
+            return bits.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return bits.toString();
+        }
+    }
+}
@@ -7,8 +7,10 @@ import fj.P2;
 import fj.data.List;
 import haxlike.Node;
 import haxlike.Resolvable;
+import haxlike.nodes.ResolvableIndex;
 import haxlike.nodes.ValueNode;
 import haxlike.resolvers.Results;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.AccessLevel;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
@@ -19,13 +21,23 @@ public final class Tuple2<A, B> implements Node<P2<A, B>> {
     Node<A> a;
     Node<B> b;
     boolean resolved;
-    List<Resolvable<?>> resolvables;
+
+    @ToString.Exclude
+    AtomicReference<ResolvableIndex> index = new AtomicReference<>();
 
     public Tuple2(Node<A> a, Node<B> b) {
         this.a = a;
         this.b = b;
         this.resolved = a.isResolved() && b.isResolved();
-        this.resolvables = a.getResolvables().append(b.getResolvables());
+    }
+
+    private ResolvableIndex index() {
+        return index.updateAndGet(
+            value ->
+                value == null
+                    ? ResolvableIndex.of(List.list(a, b))
+                    : value
+        );
     }
 
     @Override
@@ -40,13 +52,23 @@ public final class Tuple2<A, B> implements Node<P2<A, B>> {
 
     @Override
     public List<Resolvable<?>> getResolvables() {
-        return resolvables;
+        return index().getResolvables();
     }
 
     @Override
     public Node<P2<A, B>> injectValues(Results<Resolvable<?>, ?> results) {
+        final ResolvableIndex.Positions affected = index().affectedChildren(
+            results
+        );
+        if (affected.isEmpty()) {
+            return this;
+        }
+
         return ValueNode.ifResolved(
-            new Tuple2<>(a.injectValues(results), b.injectValues(results))
+            new Tuple2<>(
+                ResolvableIndex.inject(a, 0, affected, results),
+                ResolvableIndex.inject(b, 1, affected, results)
+            )
         );
     }
 
@@ -7,8 +7,10 @@ import fj.P3;
 import fj.data.List;
 import haxlike.Node;
 import haxlike.Resolvable;
+import haxlike.nodes.ResolvableIndex;
 import haxlike.nodes.ValueNode;
 import haxlike.resolvers.Results;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.AccessLevel;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
@@ -20,18 +22,24 @@ public final class Tuple3<A, B, C> implements Node<P3<A, B, C>> {
     Node<B> b;
     Node<C> c;
     boolean resolved;
-    List<Resolvable<?>> resolvables;
+
+    @ToString.Exclude
+    AtomicReference<ResolvableIndex> index = new AtomicReference<>();
 
     public Tuple3(final Node<A> a, final Node<B> b, final Node<C> c) {
         this.a = a;
         this.b = b;
         this.c = c;
         this.resolved = a.isResolved() && b.isResolved() && c.isResolved();
-        this.resolvables =
-            a
-                .getResolvables()
-                .append(b.getResolvables())
-                .append(c.getResolvables());
+    }
+
+    private ResolvableIndex index() {
+        return index.updateAndGet(
+            value ->
+                value == null
+                    ? ResolvableIndex.of(List.list(a, b, c))
+                    : value
+        );
     }
 
     @Override
@@ -46,16 +54,23 @@ public final class Tuple3<A, B, C> implements Node<P3<A, B, C>> {
 
     @Override
     public List<Resolvable<?>> getResolvables() {
-        return resolvables;
+        return index().getResolvables();
     }
 
     @Override
     public Node<P3<A, B, C>> injectValues(Results<Resolvable<?>, ?> results) {
+        final ResolvableIndex.Positions affected = index().affectedChildren(
+            results
+        );
+        if (affected.isEmpty()) {
+            return this;
+        }
+
         return ValueNode.ifResolved(
             new Tuple3<>(
-                a.injectValues(results),
-                b.injectValues(results),
-                c.injectValues(results)
+                ResolvableIndex.inject(a, 0, affected, results),
+                ResolvableIndex.inject(b, 1, affected, results),
+                ResolvableIndex.inject(c, 2, affected, results)
             )
         );
     }
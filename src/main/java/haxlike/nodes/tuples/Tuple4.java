@@ -7,8 +7,10 @@ import fj.P4;
 import fj.data.List;
 import haxlike.Node;
 import haxlike.Resolvable;
+import haxlike.nodes.ResolvableIndex;
 import haxlike.nodes.ValueNode;
 import haxlike.resolvers.Results;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.AccessLevel;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
@@ -21,7 +23,9 @@ public final class Tuple4<A, B, C, D> implements Node<P4<A, B, C, D>> {
     Node<C> c;
     Node<D> d;
     boolean resolved;
-    List<Resolvable<?>> resolvables;
+
+    @ToString.Exclude
+    AtomicReference<ResolvableIndex> index = new AtomicReference<>();
 
     public Tuple4(
         final Node<A> a,
@@ -38,11 +42,15 @@ public final class Tuple4<A, B, C, D> implements Node<P4<A, B, C, D>> {
             b.isResolved() &&
             c.isResolved() &&
             d.isResolved();
-        this.resolvables =
-            a
-                .getResolvables()
-                .append(b.getResolvables())
-                .append(c.getResolvables());
+    }
+
+    private ResolvableIndex index() {
+        return index.updateAndGet(
+            value ->
+                value == null
+                    ? ResolvableIndex.of(List.list(a, b, c, d))
+                    : value
+        );
     }
 
     @Override
@@ -57,19 +65,26 @@ public final class Tuple4<A, B, C, D> implements Node<P4<A, B, C, D>> {
 
     @Override
     public List<Resolvable<?>> getResolvables() {
-        return resolvables;
+        return index().getResolvables();
     }
 
     @Override
     public Node<P4<A, B, C, D>> injectValues(
         Results<Resolvable<?>, ?> results
     ) {
+        final ResolvableIndex.Positions affected = index().affectedChildren(
+            results
+        );
+        if (affected.isEmpty()) {
+            return this;
+        }
+
         return ValueNode.ifResolved(
             new Tuple4<>(
-                a.injectValues(results),
-                b.injectValues(results),
-                c.injectValues(results),
-                d.injectValues(results)
+                ResolvableIndex.inject(a, 0, affected, results),
+                ResolvableIndex.inject(b, 1, affected, results),
+                ResolvableIndex.inject(c, 2, affected, results),
+                ResolvableIndex.inject(d, 3, affected, results)
             )
         );
     }
@@ -55,6 +55,7 @@ public class ListProvider<E, V>
     public static class ToResolve<V>
         extends ResolvableValue<Object, List<V>>
         implements Resolvable.ListResolvable<V> {
+        private static final long serialVersionUID = 1L;
 
         public ToResolve(String resolvableKey, Object ref) {
             super(resolvableKey, ref);
@@ -27,6 +27,21 @@ public class ListResolver<E, P, V>
         return new ToResolve<>(this.getResolvableKey(), ref);
     }
 
+    /**
+     * Create a resolver that splits batches into chunks of at most the given
+     * size, resolving each of them using a separate operation. Resolvables
+     * created by either resolver are interchangeable.
+     * @param maxBatchSize maximum number of resolvables per operation
+     * @return a resolver respecting the maximum batch size
+     */
+    @Override
+    public ListResolver<E, P, V> withMaxBatchSize(int maxBatchSize) {
+        return new ListResolver<>(
+            this.getResolvableKey(),
+            this.getOperationResolver().withMaxBatchSize(maxBatchSize)
+        );
+    }
+
     // --- Helper
     private static <E, P, V> ListResolver<E, P, V> declareResolver(
         String resolverName,
@@ -78,10 +93,25 @@ public class ListResolver<E, P, V>
         return declareResolver(resolverName, f);
     }
 
+    public static <E, P, V> ListResolver<E, P, V> declareAsync(
+        String resolverName,
+        ResolverFunction.BatchedAsync<E, P, List<V>> f
+    ) {
+        return declareResolver(resolverName, f);
+    }
+
+    public static <P, V> ListResolver<Object, P, V> declareAsync(
+        String resolverName,
+        ResolverFunction.BatchedAsyncNoEnv<P, List<V>> f
+    ) {
+        return declareResolver(resolverName, f);
+    }
+
     // --- Resolvable
     public static class ToResolve<P, V>
         extends ResolvableValue<P, List<V>>
         implements Resolvable.ListResolvable<V> {
+        private static final long serialVersionUID = 1L;
 
         public ToResolve(String resolvableKey, P ref) {
             super(resolvableKey, ref);
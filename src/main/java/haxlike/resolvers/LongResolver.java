@@ -0,0 +1,94 @@
+package haxlike.resolvers;
+
+import fj.F2;
+import fj.data.List;
+import haxlike.relations.Relation;
+import haxlike.resolvers.impl.AbstractPrimitiveResolver;
+import haxlike.resolvers.impl.PrimitiveResolvable;
+import java.util.function.ToLongFunction;
+
+/**
+ * Resolver keyed by {@code long} ids, see
+ * {@link Resolver#declareLong(String, Batched)}. Ids are neither boxed when
+ * creating resolvables, nor when passing batches to the resolution function.
+ * @param <E> environment class
+ * @param <V> resolvable result class
+ */
+public class LongResolver<E, V> extends AbstractPrimitiveResolver<E, V> {
+    private final Batched<E, V> f;
+
+    LongResolver(String resolverName, Batched<E, V> f) {
+        this(resolverName, f, Integer.MAX_VALUE);
+    }
+
+    private LongResolver(String resolverName, Batched<E, V> f, int size) {
+        super(resolverName, size);
+        this.f = f;
+    }
+
+    /**
+     * Return node representing the resolution of the given id.
+     * @param id id to resolve
+     * @return node representing the resolution
+     */
+    public PrimitiveResolvable<V> fetch(long id) {
+        return new PrimitiveResolvable<>(this.getResolvableKey(), id);
+    }
+
+    /**
+     * Declare a relation that can be fulfilled by this resolver.
+     * @param <T> type to attach this relation to
+     * @param attachFunction function to be used to attach
+     * @param idFunction function returning the id to resolve
+     * @return a relation representing this resolver's result
+     */
+    public <T> Relation<T, V> relation(
+        F2<T, V, T> attachFunction,
+        ToLongFunction<T> idFunction
+    ) {
+        return Relation.declare(
+            attachFunction,
+            t -> this.fetch(idFunction.applyAsLong(t))
+        );
+    }
+
+    @Override
+    public LongResolver<E, V> withMaxBatchSize(int maxBatchSize) {
+        checkMaxBatchSize(maxBatchSize);
+        return new LongResolver<>(this.getResolvableKey(), f, maxBatchSize);
+    }
+
+    @Override
+    protected LongResults<V> resolveBatch(
+        E env,
+        List<PrimitiveResolvable<V>> batch
+    ) {
+        final long[] ids = new long[batch.length()];
+        int i = 0;
+        for (PrimitiveResolvable<V> r : batch) {
+            ids[i++] = r.getId();
+        }
+        return f.resolveAll(env, ids);
+    }
+
+    // --- Resolver Functions
+    @FunctionalInterface
+    public static interface Batched<E, V> {
+        LongResults<V> resolveAll(E environment, long[] ids);
+    }
+
+    @FunctionalInterface
+    public static interface BatchedNoEnv<V> {
+        LongResults<V> resolveAll(long[] ids);
+    }
+
+    @FunctionalInterface
+    public static interface BatchedInOrder<E, V> {
+        List<V> resolveAll(E environment, long[] ids);
+    }
+
+    @FunctionalInterface
+    public static interface BatchedInOrderNoEnv<V> {
+        List<V> resolveAll(long[] ids);
+    }
+}
@@ -0,0 +1,253 @@
+package haxlike.resolvers;
+
+import fj.data.List;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Results of primitive-keyed resolvers, see
+ * {@link Resolver#declareLong(String, LongResolver.Batched)} and
+ * {@link Resolver#declareInt(String, IntResolver.Batched)}. Values are stored
+ * in an open-addressing hash table keyed by the unboxed id; {@code int} ids
+ * are widened to {@code long}.
+ * <p>
+ * Instances are mutable and not thread-safe; they are meant to be filled by
+ * a single operation and not modified after having been returned.
+ * @param <V> value class
+ */
+public final class LongResults<V> {
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] ids;
+    private Object[] values;
+    private boolean[] used;
+    private int size = 0;
+
+    public LongResults() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Create empty results able to hold the given number of values without
+     * resizing.
+     * @param expectedSize expected number of values
+     */
+    public LongResults(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Associate the given value with the given id, replacing any previous
+     * value.
+     * @param id id to store the value for
+     * @param value value, may be null to mark the id as not found
+     * @return these results
+     */
+    public LongResults<V> put(long id, V value) {
+        int slot = slotOf(id);
+        if (!used[slot]) {
+            if (2 * (size + 1) > ids.length) {
+                resize(ids.length * 2);
+                slot = slotOf(id);
+            }
+            used[slot] = true;
+            ids[slot] = id;
+            size++;
+        }
+        values[slot] = value;
+        return this;
+    }
+
+    /**
+     * @param id id to look up
+     * @return true if a value (possibly null) is stored for the given id
+     */
+    public boolean contains(long id) {
+        return used[slotOf(id)];
+    }
+
+    /**
+     * @param id id to look up
+     * @return the value stored for the given id, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long id) {
+        final int slot = slotOf(id);
+        return used[slot] ? (V) values[slot] : null;
+    }
+
+    /**
+     * @return number of ids contained in these results
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Call the given function for every id and value, in no particular order.
+     * @param f function to call
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Entries<? super V> f) {
+        for (int i = 0; i < ids.length; i++) {
+            if (used[i]) {
+                f.accept(ids[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Callback for {@link #forEach(Entries)}, avoiding boxing of ids.
+     * @param <V> value class
+     */
+    @FunctionalInterface
+    public static interface Entries<V> {
+        void accept(long id, V value);
+    }
+
+    // --- Hash Table
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    private int slotOf(long id) {
+        final int mask = ids.length - 1;
+        int slot = hash(id) & mask;
+        while (used[slot] && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long id) {
+        final long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void resize(int capacity) {
+        final long[] oldIds = ids;
+        final Object[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldUsed[i]) {
+                final int slot = slotOf(oldIds[i]);
+                used[slot] = true;
+                ids[slot] = oldIds[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder();
+        forEach(
+            (id, value) ->
+                out
+                    .append(out.length() == 0 ? "" : ", ")
+                    .append(id)
+                    .append('=')
+                    .append(value)
+        );
+        return "LongResults(" + out + ")";
+    }
+
+    // --- Factories
+    public static <V> LongResults<V> zip(long[] ids, List<V> values) {
+        final LongResults<V> results = new LongResults<>(ids.length);
+        int i = 0;
+        for (V value : values) {
+            if (i == ids.length) {
+                break;
+            }
+            results.put(ids[i++], value);
+        }
+        return results;
+    }
+
+    public static <V> LongResults<V> zip(int[] ids, List<V> values) {
+        final LongResults<V> results = new LongResults<>(ids.length);
+        int i = 0;
+        for (V value : values) {
+            if (i == ids.length) {
+                break;
+            }
+            results.put(ids[i++], value);
+        }
+        return results;
+    }
+
+    /**
+     * Match results to the requested ids using the id of each result. Ids
+     * without a matching result are associated with the given default value;
+     * results not matching any requested id are dropped.
+     * @param <V> value class
+     * @param ids requested ids
+     * @param results results in any order
+     * @param fv function returning the id of a result
+     * @param defaultValue value for ids without matching result
+     * @return results for exactly the requested ids
+     */
+    public static <V> LongResults<V> match(
+        long[] ids,
+        List<V> results,
+        ToLongFunction<V> fv,
+        V defaultValue
+    ) {
+        final LongResults<V> matched = new LongResults<>(ids.length);
+        for (long id : ids) {
+            matched.put(id, defaultValue);
+        }
+        return matched.matchAll(results, fv);
+    }
+
+    public static <V> LongResults<V> match(
+        long[] ids,
+        List<V> results,
+        ToLongFunction<V> fv
+    ) {
+        return match(ids, results, fv, null);
+    }
+
+    public static <V> LongResults<V> match(
+        int[] ids,
+        List<V> results,
+        ToIntFunction<V> fv,
+        V defaultValue
+    ) {
+        final LongResults<V> matched = new LongResults<>(ids.length);
+        for (int id : ids) {
+            matched.put(id, defaultValue);
+        }
+        return matched.matchAll(results, fv::applyAsInt);
+    }
+
+    public static <V> LongResults<V> match(
+        int[] ids,
+        List<V> results,
+        ToIntFunction<V> fv
+    ) {
+        return match(ids, results, fv, null);
+    }
+
+    private LongResults<V> matchAll(List<V> results, ToLongFunction<V> fv) {
+        for (V result : results) {
+            final int slot = slotOf(fv.applyAsLong(result));
+            if (used[slot]) {
+                values[slot] = result;
+            }
+        }
+        return this;
+    }
+}
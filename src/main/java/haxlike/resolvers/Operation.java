@@ -1,6 +1,56 @@
 package haxlike.resolvers;
 
+import fj.F;
+import java.util.concurrent.CompletionStage;
+
 @FunctionalInterface
 public interface Operation<R, V> {
     Results<R, V> runOperation();
+
+    /**
+     * Create an operation whose results have their keys transformed using
+     * the given function.
+     * @param <T> new key class
+     * @param f key transformation function
+     * @return an operation with transformed result keys
+     */
+    default <T> Operation<T, V> mapKeys(F<R, T> f) {
+        return () -> this.runOperation().mapKeys(f);
+    }
+
+    /**
+     * Helper to declare an asynchronous operation inline.
+     * @param <R> resolvable class
+     * @param <V> resolvable value class
+     * @param op asynchronous operation
+     * @return the operation
+     */
+    static <R, V> Operation<R, V> async(Async<R, V> op) {
+        return op;
+    }
+
+    /**
+     * An operation that does not block the calling thread but returns a
+     * {@link CompletionStage} instead. Engines will compose these directly
+     * when resolving via {@link haxlike.Engine#resolveAsync(haxlike.Node)},
+     * and fall back to waiting for the result otherwise.
+     * @param <R> resolvable class
+     * @param <V> resolvable value class
+     */
+    @FunctionalInterface
+    public static interface Async<R, V> extends Operation<R, V> {
+        CompletionStage<Results<R, V>> runOperationAsync();
+
+        @Override
+        default Results<R, V> runOperation() {
+            return this.runOperationAsync().toCompletableFuture().join();
+        }
+
+        @Override
+        default <T> Operation<T, V> mapKeys(F<R, T> f) {
+            return async(
+                () -> this.runOperationAsync().thenApply(r -> r.mapKeys(f))
+            );
+        }
+    }
 }
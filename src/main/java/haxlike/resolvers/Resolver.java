@@ -22,6 +22,21 @@ public class Resolver<E, P, V>
         return new ResolvableValue<>(this.getResolvableKey(), ref);
     }
 
+    /**
+     * Create a resolver that splits batches into chunks of at most the given
+     * size, resolving each of them using a separate operation. Resolvables
+     * created by either resolver are interchangeable.
+     * @param maxBatchSize maximum number of resolvables per operation
+     * @return a resolver respecting the maximum batch size
+     */
+    @Override
+    public Resolver<E, P, V> withMaxBatchSize(int maxBatchSize) {
+        return new Resolver<>(
+            this.getResolvableKey(),
+            this.getOperationResolver().withMaxBatchSize(maxBatchSize)
+        );
+    }
+
     // --- Helper
     private static <E, P, V> Resolver<E, P, V> declareResolver(
         String resolverName,
@@ -72,4 +87,93 @@ public class Resolver<E, P, V>
     ) {
         return declareResolver(resolverName, f);
     }
+
+    public static <E, P, V> Resolver<E, P, V> declareAsync(
+        String resolverName,
+        ResolverFunction.BatchedAsync<E, P, V> f
+    ) {
+        return declareResolver(resolverName, f);
+    }
+
+    public static <P, V> Resolver<Object, P, V> declareAsync(
+        String resolverName,
+        ResolverFunction.BatchedAsyncNoEnv<P, V> f
+    ) {
+        return declareResolver(resolverName, f);
+    }
+
+    // --- Primitive-keyed Factories
+    public static <E, V> LongResolver<E, V> declareLong(
+        String resolverName,
+        LongResolver.Batched<E, V> f
+    ) {
+        return new LongResolver<>(resolverName, f);
+    }
+
+    public static <V> LongResolver<Object, V> declareLong(
+        String resolverName,
+        LongResolver.BatchedNoEnv<V> f
+    ) {
+        return new LongResolver<>(
+            resolverName,
+            (env, ids) -> f.resolveAll(ids)
+        );
+    }
+
+    public static <E, V> LongResolver<E, V> declareLong(
+        String resolverName,
+        LongResolver.BatchedInOrder<E, V> f
+    ) {
+        return new LongResolver<>(
+            resolverName,
+            (env, ids) -> LongResults.zip(ids, f.resolveAll(env, ids))
+        );
+    }
+
+    public static <V> LongResolver<Object, V> declareLong(
+        String resolverName,
+        LongResolver.BatchedInOrderNoEnv<V> f
+    ) {
+        return new LongResolver<>(
+            resolverName,
+            (env, ids) -> LongResults.zip(ids, f.resolveAll(ids))
+        );
+    }
+
+    public static <E, V> IntResolver<E, V> declareInt(
+        String resolverName,
+        IntResolver.Batched<E, V> f
+    ) {
+        return new IntResolver<>(resolverName, f);
+    }
+
+    public static <V> IntResolver<Object, V> declareInt(
+        String resolverName,
+        IntResolver.BatchedNoEnv<V> f
+    ) {
+        return new IntResolver<>(
+            resolverName,
+            (env, ids) -> f.resolveAll(ids)
+        );
+    }
+
+    public static <E, V> IntResolver<E, V> declareInt(
+        String resolverName,
+        IntResolver.BatchedInOrder<E, V> f
+    ) {
+        return new IntResolver<>(
+            resolverName,
+            (env, ids) -> LongResults.zip(ids, f.resolveAll(env, ids))
+        );
+    }
+
+    public static <V> IntResolver<Object, V> declareInt(
+        String resolverName,
+        IntResolver.BatchedInOrderNoEnv<V> f
+    ) {
+        return new IntResolver<>(
+            resolverName,
+            (env, ids) -> LongResults.zip(ids, f.resolveAll(ids))
+        );
+    }
 }
@@ -2,6 +2,7 @@ package haxlike.resolvers;
 
 import fj.data.List;
 import haxlike.Resolvable;
+import haxlike.resolvers.impl.ChunkedResolverDefinition;
 
 /**
  * A resolver brings together resolution logic and a resolvable class that logic
@@ -25,4 +26,19 @@ public interface ResolverDefinition<E, R extends Resolvable<V>, V> {
      * @return list of operations
      */
     List<Operation<R, V>> createOperations(E env, List<R> batch);
+
+    /**
+     * Create a resolver that splits batches into chunks of at most the given
+     * size, resolving each of them using a separate operation.
+     * @param maxBatchSize maximum number of resolvables per operation
+     * @return a resolver respecting the maximum batch size
+     */
+    default ResolverDefinition<E, R, V> withMaxBatchSize(int maxBatchSize) {
+        final ResolverFunction.OperationResolver<E, R, V> f =
+            this::createOperations;
+        return new ChunkedResolverDefinition<>(
+            getResolvableKey(),
+            f.withMaxBatchSize(maxBatchSize)
+        );
+    }
 }
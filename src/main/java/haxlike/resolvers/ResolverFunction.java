@@ -3,6 +3,7 @@ package haxlike.resolvers;
 import fj.data.List;
 import haxlike.Resolvable;
 import haxlike.resolvers.impl.ResolverDefinitionImpl;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Function representing resolution logic (independent of {@link haxlike.Resolvable}).
@@ -28,6 +29,27 @@ public interface ResolverFunction<E, R, V> {
         default OperationResolver<E, R, V> toOperationResolver() {
             return this;
         }
+
+        /**
+         * Split batches into chunks of at most the given size, creating
+         * separate operations for each of them. These can then be run in
+         * parallel by the {@link haxlike.ResolutionStrategy}.
+         * @param maxBatchSize maximum number of resolvables per operation
+         * @return an operation resolver respecting the maximum batch size
+         */
+        default OperationResolver<E, R, V> withMaxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException(
+                    "Maximum batch size must be positive: " + maxBatchSize
+                );
+            }
+            return (env, batch) ->
+                batch.length() <= maxBatchSize
+                    ? this.createOperations(env, batch)
+                    : batch
+                        .partition(maxBatchSize)
+                        .bind(chunk -> this.createOperations(env, chunk));
+        }
     }
 
     /**
@@ -187,6 +209,46 @@ public interface ResolverFunction<E, R, V> {
         }
     }
 
+    /**
+     * A batched resolver that does not block but returns a
+     * {@link CompletionStage} that will eventually contain the results for the
+     * given values-to-resolve.
+     * @param <E> environment class
+     * @param <V> return value of a single resolvable
+     * @param <R> resolvable class
+     */
+    @FunctionalInterface
+    public static interface BatchedAsync<E, R, V>
+        extends ResolverFunction<E, R, V> {
+        CompletionStage<Results<R, V>> resolveAll(
+            E environment,
+            List<R> resolvables
+        );
+
+        @Override
+        default OperationResolver<E, R, V> toOperationResolver() {
+            return (env, batch) ->
+                List.single(Operation.async(() -> this.resolveAll(env, batch)));
+        }
+    }
+
+    /**
+     * Like {@link BatchedAsync} but does not take an environment.
+     * @param <V> return value of a single resolvable
+     * @param <R> resolvable class
+     */
+    @FunctionalInterface
+    public static interface BatchedAsyncNoEnv<R, V>
+        extends ResolverFunction<Object, R, V> {
+        CompletionStage<Results<R, V>> resolveAll(List<R> resolvables);
+
+        @Override
+        default OperationResolver<Object, R, V> toOperationResolver() {
+            return (env, batch) ->
+                List.single(Operation.async(() -> this.resolveAll(batch)));
+        }
+    }
+
     /**
      * Convert the given resolver function to a {@link ResolverDefinition}.
      * @param <E> environment class
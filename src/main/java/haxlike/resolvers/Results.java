@@ -7,7 +7,9 @@ import fj.data.HashMap;
 import fj.data.List;
 import fj.data.Option;
 import haxlike.Resolvable;
+import haxlike.impl.ArrayResults;
 import haxlike.impl.ResultsImpl;
+import java.util.function.BiConsumer;
 
 public interface Results<R, V> {
     Option<V> get(R value);
@@ -16,10 +18,88 @@ public interface Results<R, V> {
 
     <T> Results<T, V> mapKeys(F<R, T> f);
 
+    /**
+     * Call the given function for every resolvable and its value. Unlike
+     * {@link #into(HashMap)}, this does not require copying the results.
+     * @param f function to call
+     */
+    default void forEach(BiConsumer<? super R, ? super V> f) {
+        final HashMap<R, V> values = HashMap.hashMap();
+        into(values);
+        values.foreachDoEffect(p -> f.accept(p._1(), p._2()));
+    }
+
+    /**
+     * Check whether these results contain the given resolvable, including
+     * resolvables marked as {@link #isAbsent(Object) absent}.
+     * @param value resolvable to look up
+     * @return true if the resolvable has been resolved
+     */
+    default boolean contains(R value) {
+        return get(value).isSome();
+    }
+
+    /**
+     * Check whether the given resolvable is known not to exist, i.e. it is
+     * contained in these results with a null value. This is the case for ids
+     * without matching result in {@link #match(List, F, List, F, Object)}
+     * without default value.
+     * <p>
+     * Absent resolvables resolve to null, and are cached like any other
+     * value, so repeated lookups of missing entities do not reach the
+     * resolver again. Caches may expire them separately, see
+     * {@link haxlike.caches.BoundedEngineCache}.
+     * @param value resolvable to look up
+     * @return true if the resolvable is contained without a value
+     */
+    default boolean isAbsent(R value) {
+        return contains(value) && get(value).isNone();
+    }
+
     default V getSome(R value) {
         return this.get(value).some();
     }
 
+    /**
+     * Return the number of values contained in these results.
+     * @return number of values
+     */
+    default int size() {
+        final HashMap<R, V> values = HashMap.hashMap();
+        into(values);
+        return values.size();
+    }
+
+    /**
+     * Return a 64-bit bloom filter of all keys contained in these results,
+     * combining {@link #keyBit(Object)} of every key. Nodes use this to skip
+     * subtrees none of whose resolvables can be contained in the results.
+     * By default, all bits are set, i.e. every key might be contained.
+     * @return bloom filter of the contained keys
+     */
+    default long getKeyMask() {
+        return -1L;
+    }
+
+    /**
+     * Bloom filter bit of a single key, see {@link #getKeyMask()}.
+     * @param key key to compute the bit for
+     * @return a long with exactly one bit set
+     */
+    static long keyBit(Object key) {
+        return hashBit(key.hashCode());
+    }
+
+    /**
+     * Bloom filter bit of a key with the given hash code, see
+     * {@link #keyBit(Object)}.
+     * @param h hash code of the key
+     * @return a long with exactly one bit set
+     */
+    static long hashBit(int h) {
+        return 1L << ((h ^ (h >>> 16)) & 63);
+    }
+
     // --- Factories
     public static <R, V> Results<R, V> empty() {
         return new ResultsImpl<>();
@@ -29,6 +109,18 @@ public interface Results<R, V> {
         return new ResultsImpl<>(List.single(p(r, v)));
     }
 
+    /**
+     * Create results marking the given resolvable as absent, see
+     * {@link #isAbsent(Object)}.
+     * @param <R> resolvable class
+     * @param <V> value class
+     * @param r resolvable that does not exist
+     * @return results containing the resolvable without a value
+     */
+    public static <R, V> Results<R, V> absent(R r) {
+        return Results.single(r, null);
+    }
+
     public static <R, V> Results<R, V> map(List<R> resolvables, F<R, V> f) {
         return Results.zip(resolvables, resolvables.map(f));
     }
@@ -37,7 +129,7 @@ public interface Results<R, V> {
         List<R> resolvables,
         List<V> results
     ) {
-        return new ResultsImpl<>(resolvables.zip(results));
+        return ArrayResults.zip(resolvables, results);
     }
 
     public static <R, V, I> Results<R, V> match(
@@ -47,13 +139,7 @@ public interface Results<R, V> {
         F<V, I> fv,
         V defaultValue
     ) {
-        final HashMap<I, V> lookup = HashMap.iterableHashMap(
-            results.map(fv).zip(results)
-        );
-        return Results.zip(
-            resolvables,
-            resolvables.map(fr).map(i -> lookup.get(i).orSome(defaultValue))
-        );
+        return ArrayResults.match(resolvables, fr, results, fv, defaultValue);
     }
 
     public static <R extends Resolvable<V>, V, I> Results<R, V> match(
@@ -70,7 +156,7 @@ public interface Results<R, V> {
         List<V> results,
         F<V, I> fv
     ) {
-        return Results.match(references, r -> r, results, fv, null);
+        return ArrayResults.match(references, results, fv, null);
     }
 
     public static <V, I> Results<I, V> match(
@@ -79,6 +165,6 @@ public interface Results<R, V> {
         F<V, I> fv,
         V defaultValue
     ) {
-        return Results.match(references, r -> r, results, fv, defaultValue);
+        return ArrayResults.match(references, results, fv, defaultValue);
     }
 }
@@ -0,0 +1,71 @@
+package haxlike.resolvers.impl;
+
+import fj.data.List;
+import haxlike.resolvers.LongResults;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.ResolverDefinition;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Base class for resolvers keyed by primitive ids. Batches are passed to the
+ * resolution function as primitive arrays, and results are looked up by the
+ * unboxed id, so neither requires boxing.
+ *
+ * @param <E> environment class
+ * @param <V> resolvable result class
+ */
+@RequiredArgsConstructor(access = AccessLevel.PROTECTED)
+public abstract class AbstractPrimitiveResolver<E, V>
+    implements ResolverDefinition<E, PrimitiveResolvable<V>, V> {
+    @NonNull
+    @Getter
+    private final String resolvableKey;
+
+    /**
+     * Maximum number of resolvables per operation.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    private final int maxBatchSize;
+
+    /**
+     * Resolve the ids of the given batch.
+     * @param env environment to use
+     * @param batch batch of at most {@link #getMaxBatchSize()} resolvables
+     * @return results keyed by id
+     */
+    protected abstract LongResults<V> resolveBatch(
+        E env,
+        List<PrimitiveResolvable<V>> batch
+    );
+
+    @Override
+    public final List<Operation<PrimitiveResolvable<V>, V>> createOperations(
+        E env,
+        List<PrimitiveResolvable<V>> batch
+    ) {
+        return batch.length() <= maxBatchSize
+            ? List.single(createOperation(env, batch))
+            : batch
+                .partition(maxBatchSize)
+                .map(chunk -> createOperation(env, chunk));
+    }
+
+    private Operation<PrimitiveResolvable<V>, V> createOperation(
+        E env,
+        List<PrimitiveResolvable<V>> batch
+    ) {
+        return () ->
+            new PrimitiveResults<>(resolvableKey, resolveBatch(env, batch));
+    }
+
+    protected static void checkMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException(
+                "Maximum batch size must be positive: " + maxBatchSize
+            );
+        }
+    }
+}
@@ -27,13 +27,14 @@ public abstract class AbstractResolverDefinition<E, P, V, R extends ResolvableVa
     private final String resolvableKey;
 
     @NonNull
+    @Getter(AccessLevel.PROTECTED)
     private final ResolverFunction.OperationResolver<E, P, V> operationResolver;
 
     @Override
     public final List<Operation<R, V>> createOperations(E env, List<R> batch) {
         return operationResolver
             .createOperations(env, batch.map(ResolvableValue::getRef))
-            .map(op -> () -> op.runOperation().mapKeys(this::createResolvable));
+            .map(op -> op.mapKeys(this::createResolvable));
     }
 
     /**
@@ -0,0 +1,27 @@
+package haxlike.resolvers.impl;
+
+import fj.data.List;
+import haxlike.Resolvable;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.ResolverDefinition;
+import haxlike.resolvers.ResolverFunction;
+import lombok.Value;
+
+/**
+ * Resolver definition splitting batches into chunks, see
+ * {@link ResolverDefinition#withMaxBatchSize(int)}.
+ * @param <E> environment class
+ * @param <R> resolvable class
+ * @param <V> resolvable value class
+ */
+@Value
+public class ChunkedResolverDefinition<E, R extends Resolvable<V>, V>
+    implements ResolverDefinition<E, R, V> {
+    String resolvableKey;
+    ResolverFunction.OperationResolver<E, R, V> f;
+
+    @Override
+    public List<Operation<R, V>> createOperations(E env, List<R> batch) {
+        return f.createOperations(env, batch);
+    }
+}
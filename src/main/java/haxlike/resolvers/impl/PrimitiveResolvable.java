@@ -0,0 +1,53 @@
+package haxlike.resolvers.impl;
+
+import haxlike.Resolvable;
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolvable of a primitive-keyed resolver, storing its id unboxed. Ids of
+ * {@code int}-keyed resolvers are widened to {@code long}.
+ * @param <V> resolvable result class
+ */
+@Getter
+@RequiredArgsConstructor
+public class PrimitiveResolvable<V> implements Resolvable<V>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @NonNull
+    private final String resolvableKey;
+
+    private final long id;
+
+    /**
+     * Hash code of a resolvable with the given key and id, so results can
+     * compute it without creating the resolvable.
+     */
+    static int hashCode(String resolvableKey, long id) {
+        return 31 * resolvableKey.hashCode() + Long.hashCode(id);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode(resolvableKey, id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PrimitiveResolvable)) {
+            return false;
+        }
+        final PrimitiveResolvable<?> other = (PrimitiveResolvable<?>) o;
+        return id == other.id && resolvableKey.equals(other.resolvableKey);
+    }
+
+    @Override
+    public String toString() {
+        return resolvableKey + "(" + id + ")";
+    }
+}
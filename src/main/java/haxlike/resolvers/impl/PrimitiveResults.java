@@ -0,0 +1,96 @@
+package haxlike.resolvers.impl;
+
+import fj.F;
+import fj.data.HashMap;
+import fj.data.Option;
+import haxlike.impl.ResultsImpl;
+import haxlike.resolvers.LongResults;
+import haxlike.resolvers.Results;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Results of a primitive-keyed resolver, looking up resolvables by their
+ * unboxed id. Resolvables are only created when copying the results.
+ * @param <V> resolvable result class
+ */
+@RequiredArgsConstructor
+public class PrimitiveResults<V> implements Results<PrimitiveResolvable<V>, V> {
+    @NonNull
+    private final String resolvableKey;
+
+    @NonNull
+    private final LongResults<V> values;
+
+    // --- Cache Key Mask
+    private volatile long keyMask;
+    private volatile boolean keyMaskComputed;
+
+    @Override
+    public Option<V> get(PrimitiveResolvable<V> resolvable) {
+        return resolvable.getResolvableKey().equals(resolvableKey)
+            ? Option.fromNull(values.get(resolvable.getId()))
+            : Option.none();
+    }
+
+    @Override
+    public boolean contains(PrimitiveResolvable<V> resolvable) {
+        return (
+            resolvable.getResolvableKey().equals(resolvableKey) &&
+            values.contains(resolvable.getId())
+        );
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public long getKeyMask() {
+        if (!keyMaskComputed) {
+            final long[] mask = { 0L };
+            values.forEach(
+                (id, value) ->
+                    mask[0] |=
+                        Results.hashBit(
+                            PrimitiveResolvable.hashCode(resolvableKey, id)
+                        )
+            );
+            keyMask = mask[0];
+            keyMaskComputed = true;
+        }
+        return keyMask;
+    }
+
+    @Override
+    public void forEach(
+        BiConsumer<? super PrimitiveResolvable<V>, ? super V> f
+    ) {
+        values.forEach(
+            (id, value) ->
+                f.accept(new PrimitiveResolvable<>(resolvableKey, id), value)
+        );
+    }
+
+    @Override
+    public void into(HashMap<PrimitiveResolvable<V>, V> target) {
+        forEach(target::set);
+    }
+
+    @Override
+    public <T> Results<T, V> mapKeys(F<PrimitiveResolvable<V>, T> f) {
+        final Map<T, V> target = new java.util.HashMap<>(
+            ResultsImpl.capacity(values.size())
+        );
+        forEach((r, value) -> target.put(f.f(r), value));
+        return new ResultsImpl<>(target);
+    }
+
+    @Override
+    public String toString() {
+        return resolvableKey + values;
+    }
+}
@@ -1,6 +1,7 @@
 package haxlike.resolvers.impl;
 
 import haxlike.Resolvable;
+import java.io.Serializable;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
@@ -9,7 +10,9 @@ import lombok.RequiredArgsConstructor;
 @Getter
 @RequiredArgsConstructor
 @EqualsAndHashCode
-public class ResolvableValue<P, T> implements Resolvable<T> {
+public class ResolvableValue<P, T> implements Resolvable<T>, Serializable {
+    private static final long serialVersionUID = 1L;
+
     @NonNull
     private final String resolvableKey;
 
@@ -0,0 +1,52 @@
+package haxlike.strategies;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Bulkhead adjusting its limit to the observed latency, using additive
+ * increase and multiplicative decrease (AIMD): The limit grows by one once a
+ * full limit's worth of operations completed within the latency target, and
+ * is reduced by the backoff ratio whenever an operation exceeds the target
+ * or fails.
+ */
+public class AdaptiveBulkhead extends LimitBulkhead {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+
+    // --- Guarded by 'this'
+    private int successes = 0;
+
+    public AdaptiveBulkhead(
+        int minLimit,
+        int maxLimit,
+        Duration latencyTarget,
+        Executor executor
+    ) {
+        super(minLimit, executor);
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException(
+                "Maximum limit must not be less than " + minLimit
+            );
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+    }
+
+    @Override
+    protected int adjustLimit(int limit, long nanos, boolean failed) {
+        if (failed || nanos > latencyTargetNanos) {
+            successes = 0;
+            return Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+        }
+        if (++successes < limit) {
+            return limit;
+        }
+        successes = 0;
+        return Math.min(maxLimit, limit + 1);
+    }
+}
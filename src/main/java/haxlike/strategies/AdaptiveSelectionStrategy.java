@@ -0,0 +1,55 @@
+package haxlike.strategies;
+
+/**
+ * Selection strategy deciding which batches to defer based on the observed
+ * latency of their resolvers, aiming for the lowest end-to-end latency
+ * instead of following a static ordering.
+ * <p>
+ * An iteration takes as long as its slowest batch, so a batch only adds to
+ * the resolution's latency if it is slower than that. For every batch of
+ * size {@code n}, the strategy estimates latency {@code L(n)} from a fitted
+ * latency curve of its resolver, the probability {@code p} of its resolver
+ * showing up again in a later iteration with {@code m} more resolvables, and
+ * assumes that later iterations are as slow as the current one, {@code A}:
+ * <ul>
+ *   <li>Running it now costs {@code max(0, L(n) - A)}, plus
+ *   {@code p * max(0, L(m) - A)} for the later round trip.</li>
+ *   <li>Deferring it costs {@code p * max(0, L(n + m) - A)} if it is joined
+ *   by more resolvables, or {@code (1 - p) * max(0, L(n) - A)} if not.</li>
+ * </ul>
+ * Resolvers with a high fixed cost per round trip are thus merged across
+ * iterations, while cheap ones run as early as possible. See
+ * {@link DeferringSelectionStrategy} for how statistics are collected.
+ */
+public class AdaptiveSelectionStrategy extends DeferringSelectionStrategy {
+
+    /**
+     * Create a new strategy.
+     * @param minSamples number of resolutions a resolver has to be seen in
+     * before its statistics are used
+     */
+    public AdaptiveSelectionStrategy(int minSamples) {
+        super(minSamples);
+    }
+
+    @Override
+    protected boolean shouldDefer(
+        ResolverStats stats,
+        int size,
+        double anchorLatency
+    ) {
+        final double p = stats.getRecurrence();
+        final double more = stats.getRecurringSize();
+        final double runNow =
+            excess(stats.getLatency(size), anchorLatency) +
+            p * excess(stats.getLatency(more), anchorLatency);
+        final double deferNow =
+            p * excess(stats.getLatency(size + more), anchorLatency) +
+            (1 - p) * excess(stats.getLatency(size), anchorLatency);
+        return deferNow < runNow;
+    }
+
+    private static double excess(double latency, double anchorLatency) {
+        return Math.max(0, latency - anchorLatency);
+    }
+}
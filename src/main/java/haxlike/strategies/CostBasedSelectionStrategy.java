@@ -0,0 +1,68 @@
+package haxlike.strategies;
+
+import fj.Ord;
+import fj.data.List;
+import haxlike.Resolvable;
+
+/**
+ * Selection strategy deferring batches that are likely to be joined by more
+ * resolvables of the same resolver in a later iteration, so both can be
+ * fetched using a single round trip.
+ * <p>
+ * Given the recurrence probability {@code p} and latency {@code L} of a
+ * batch, and the latency {@code A} of the slowest batch running in this
+ * iteration anyway, a batch is deferred if that is expected to be cheaper
+ * than running it now:
+ * <ul>
+ *   <li>Running it now extends this iteration by {@code max(0, L - A)} and,
+ *   with probability {@code p}, requires another round trip later.</li>
+ *   <li>Deferring it risks, with probability {@code 1 - p}, that it ends up
+ *   in an iteration of its own.</li>
+ * </ul>
+ * Until a resolver has been seen in enough resolutions, the class ordering
+ * of the given {@link PrioritySelectionStrategy} is used instead. See
+ * {@link DeferringSelectionStrategy} for how statistics are collected.
+ */
+public class CostBasedSelectionStrategy extends DeferringSelectionStrategy {
+    private final PrioritySelectionStrategy priorities;
+
+    /**
+     * Create a new strategy.
+     * @param priorities static ordering to use for resolvers that have not
+     * been observed often enough
+     * @param minSamples number of resolutions a resolver has to be seen in
+     * before its statistics are used
+     */
+    public CostBasedSelectionStrategy(
+        PrioritySelectionStrategy priorities,
+        int minSamples
+    ) {
+        super(minSamples);
+        this.priorities = priorities;
+    }
+
+    @Override
+    protected boolean shouldDefer(
+        ResolverStats stats,
+        int size,
+        double anchorLatency
+    ) {
+        final double p = stats.getRecurrence();
+        final double latency = stats.getLatency(size);
+        final double runNow =
+            Math.max(0, latency - anchorLatency) + p * latency;
+        final double deferNow = (1 - p) * latency;
+        return deferNow < runNow;
+    }
+
+    @Override
+    protected <R extends Resolvable<?>> boolean shouldDeferWithoutStats(
+        List<R> batch,
+        List<List<R>> batches
+    ) {
+        final int maxPriority = batches
+            .map(priorities::toPriority)
+            .maximum(Ord.intOrd);
+        return priorities.toPriority(batch) < maxPriority;
+    }
+}
@@ -0,0 +1,297 @@
+package haxlike.strategies;
+
+import fj.data.List;
+import haxlike.EngineListener;
+import haxlike.Resolvable;
+import haxlike.SelectionStrategy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class for selection strategies that learn from previous resolutions
+ * which batches to defer to a later iteration.
+ * <p>
+ * For every resolvable key, the strategy records {@link ResolverStats}: how
+ * likely it is that resolvables of the key show up again after a batch has
+ * been selected, and how operation latency grows with the batch size. Within
+ * an iteration, batches are considered in order of increasing recurrence
+ * probability; subclasses decide whether to defer each of them, given the
+ * latency of the slowest batch selected so far. A batch is never deferred
+ * twice in a row, and at least one batch is selected per iteration.
+ * <p>
+ * Latencies are observed using the strategy's {@link #getListener()}, which
+ * engines register automatically.
+ */
+public abstract class DeferringSelectionStrategy implements SelectionStrategy {
+    private final int minSamples;
+    private final Map<String, ResolverStats> stats = new ConcurrentHashMap<>();
+    private final EngineListener listener = new LatencyListener();
+
+    /**
+     * @param minSamples number of resolutions a resolvable key has to be seen
+     * in before its statistics are used
+     */
+    protected DeferringSelectionStrategy(int minSamples) {
+        if (minSamples < 1) {
+            throw new IllegalArgumentException(
+                "Minimum number of samples must be positive: " + minSamples
+            );
+        }
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Decide whether to defer a batch whose key has been observed often
+     * enough.
+     * @param stats statistics of the batch's resolvable key
+     * @param size number of resolvables in the batch
+     * @param anchorLatency estimated latency of the slowest batch selected in
+     * this iteration so far, in nanoseconds
+     * @return true if the batch should be deferred
+     */
+    protected abstract boolean shouldDefer(
+        ResolverStats stats,
+        int size,
+        double anchorLatency
+    );
+
+    /**
+     * Decide whether to defer a batch whose key has not been observed often
+     * enough yet. By default, such batches are always selected.
+     * @param <R> resolvable class
+     * @param batch the batch to decide on
+     * @param batches all batches of the current iteration
+     * @return true if the batch should be deferred
+     */
+    protected <R extends Resolvable<?>> boolean shouldDeferWithoutStats(
+        List<R> batch,
+        List<List<R>> batches
+    ) {
+        return false;
+    }
+
+    /**
+     * Return the statistics of the given resolvable key.
+     * @param resolvableKey resolvable key
+     * @return statistics, empty if the key has not been observed yet
+     */
+    public ResolverStats getStats(String resolvableKey) {
+        return stats.computeIfAbsent(resolvableKey, k -> new ResolverStats());
+    }
+
+    @Override
+    public <V, R extends Resolvable<V>> List<List<R>> select(
+        List<List<R>> batches
+    ) {
+        return forResolution().select(batches);
+    }
+
+    @Override
+    public SelectionStrategy forResolution() {
+        return new Plan();
+    }
+
+    @Override
+    public EngineListener getListener() {
+        return listener;
+    }
+
+    private static <R extends Resolvable<?>> String keyOf(List<R> batch) {
+        return batch.head().getResolvableKey();
+    }
+
+    /**
+     * Selection state of a single resolution.
+     */
+    private final class Plan implements SelectionStrategy {
+        private final Set<String> seen = new HashSet<>();
+        private final Set<String> selected = new HashSet<>();
+        private final Set<String> recurred = new HashSet<>();
+        private final Map<String, Integer> deferred = new HashMap<>();
+
+        @Override
+        public synchronized <V, R extends Resolvable<V>> List<List<R>> select(
+            List<List<R>> batches
+        ) {
+            batches.forEach(this::observe);
+
+            final ArrayList<List<R>> run = new ArrayList<>();
+            final ArrayList<List<R>> learned = new ArrayList<>();
+            double anchorLatency = 0;
+            for (List<R> batch : batches) {
+                final String key = keyOf(batch);
+                final ResolverStats s = getStats(key);
+                if (deferred.containsKey(key)) {
+                    run.add(batch);
+                    anchorLatency =
+                        Math.max(anchorLatency, s.getLatency(batch.length()));
+                } else if (s.getSamples() >= minSamples) {
+                    learned.add(batch);
+                } else if (!shouldDeferWithoutStats(batch, batches)) {
+                    run.add(batch);
+                    anchorLatency =
+                        Math.max(anchorLatency, s.getLatency(batch.length()));
+                } else {
+                    defer(batch);
+                }
+            }
+
+            learned.sort(
+                (a, b) ->
+                    Double.compare(
+                        getStats(keyOf(a)).getRecurrence(),
+                        getStats(keyOf(b)).getRecurrence()
+                    )
+            );
+            for (List<R> batch : learned) {
+                final ResolverStats s = getStats(keyOf(batch));
+                final int size = batch.length();
+                if (run.isEmpty() || !shouldDefer(s, size, anchorLatency)) {
+                    run.add(batch);
+                    anchorLatency = Math.max(anchorLatency, s.getLatency(size));
+                } else {
+                    defer(batch);
+                }
+            }
+
+            run.forEach(
+                batch -> {
+                    deferred.remove(keyOf(batch));
+                    selected.add(keyOf(batch));
+                }
+            );
+            return List.iterableList(run);
+        }
+
+        private <R extends Resolvable<?>> void defer(List<R> batch) {
+            deferred.put(keyOf(batch), batch.length());
+        }
+
+        /**
+         * Update the statistics of the batch's key: A key recurs if it shows
+         * up again after having been selected, or grows while being deferred.
+         */
+        private <R extends Resolvable<?>> void observe(List<R> batch) {
+            final String key = keyOf(batch);
+            if (seen.add(key)) {
+                getStats(key).sample();
+                return;
+            }
+            final Integer deferredSize = deferred.get(key);
+            final int added = selected.contains(key)
+                ? batch.length()
+                : batch.length() - (deferredSize == null ? 0 : deferredSize);
+            if (added > 0 && recurred.add(key)) {
+                getStats(key).recur(added);
+            }
+        }
+    }
+
+    /**
+     * Statistics of a single resolvable key. Latency is modelled as a linear
+     * function of the batch size, i.e. a fixed cost per round trip plus a
+     * cost per resolvable, fitted using exponentially decaying least squares
+     * so the model follows changes in backend performance.
+     */
+    public static final class ResolverStats {
+        private static final double DECAY = 0.95;
+        private static final double SIZE_WEIGHT = 0.2;
+
+        private long samples = 0;
+        private long recurrences = 0;
+        private double recurringSize = 0;
+
+        // --- Decaying sums for the latency regression
+        private double sw = 0;
+        private double sx = 0;
+        private double sy = 0;
+        private double sxx = 0;
+        private double sxy = 0;
+
+        synchronized void sample() {
+            samples++;
+        }
+
+        synchronized void recur(int size) {
+            recurrences++;
+            recurringSize =
+                recurringSize == 0
+                    ? size
+                    : recurringSize + SIZE_WEIGHT * (size - recurringSize);
+        }
+
+        synchronized void observeLatency(int size, long nanos) {
+            sw = DECAY * sw + 1;
+            sx = DECAY * sx + size;
+            sy = DECAY * sy + nanos;
+            sxx = DECAY * sxx + (double) size * size;
+            sxy = DECAY * sxy + (double) size * nanos;
+        }
+
+        /**
+         * @return number of resolutions the key has been seen in
+         */
+        public synchronized long getSamples() {
+            return samples;
+        }
+
+        /**
+         * @return ratio of resolutions in which the key showed up again
+         * after having been selected or deferred
+         */
+        public synchronized double getRecurrence() {
+            return samples == 0
+                ? 0
+                : Math.min(1, (double) recurrences / samples);
+        }
+
+        /**
+         * @return average number of resolvables showing up again
+         */
+        public synchronized double getRecurringSize() {
+            return recurringSize;
+        }
+
+        /**
+         * Estimate the latency of a batch of the given size.
+         * @param size number of resolvables
+         * @return estimated latency in nanoseconds, 0 if unknown
+         */
+        public synchronized double getLatency(double size) {
+            if (sw == 0) {
+                return 0;
+            }
+            final double meanX = sx / sw;
+            final double meanY = sy / sw;
+            final double variance = sxx / sw - meanX * meanX;
+            final double slope = variance < 1e-9
+                ? 0
+                : Math.max(0, (sxy / sw - meanX * meanY) / variance);
+            final double intercept = Math.max(0, meanY - slope * meanX);
+            return intercept + slope * size;
+        }
+    }
+
+    /**
+     * Listener learning latencies, using the number of returned values as
+     * batch size.
+     */
+    private final class LatencyListener implements EngineListener {
+
+        @Override
+        public void onOperation(
+            String resolvableKey,
+            long nanos,
+            int resultCount,
+            Throwable error
+        ) {
+            if (error == null) {
+                getStats(resolvableKey).observeLatency(resultCount, nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package haxlike.strategies;
+
+import fj.control.parallel.Strategy;
+import fj.data.List;
+import haxlike.ResolutionStrategy;
+import haxlike.impl.Futures;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import lombok.Value;
+
+/**
+ * Resolution strategy running every operation on an {@link ExecutorService}.
+ * Asynchronous resolution will submit blocking operations to the executor
+ * instead of running them on the calling thread.
+ */
+@Value
+public class ExecutorResolutionStrategy implements ResolutionStrategy {
+    ExecutorService executor;
+
+    @Override
+    public <R, V> List<Results<R, V>> run(List<Operation<R, V>> operations) {
+        return Strategy
+            .<Results<R, V>>executorStrategy(executor)
+            .parMap1(Operation::runOperation, operations);
+    }
+
+    @Override
+    public <R, V> CompletableFuture<List<Results<R, V>>> runAsync(
+        List<Operation<R, V>> operations
+    ) {
+        return Futures.sequence(operations.map(this::start));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R, V> CompletableFuture<Results<R, V>> start(Operation<R, V> op) {
+        if (op instanceof Operation.Async) {
+            return Futures.start((Operation.Async<R, V>) op);
+        }
+        return CompletableFuture.supplyAsync(op::runOperation, executor);
+    }
+}
@@ -0,0 +1,154 @@
+package haxlike.strategies;
+
+import haxlike.Bulkhead;
+import haxlike.impl.Futures;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Bulkhead admitting a limited number of concurrent operations. Operations
+ * exceeding the limit are queued and started once a running operation has
+ * completed.
+ * <p>
+ * Blocking operations run on the given executor if there is one. Otherwise,
+ * they run on the thread that admits them, i.e. either the thread starting
+ * them or the one completing the previous operation. Operations admitted while
+ * that thread is already admitting others are run one after another, so long
+ * queues do not grow its stack.
+ */
+public class LimitBulkhead implements Bulkhead {
+    /**
+     * Permits to be handed out by the admission loop running on the current
+     * thread, if any, see {@link #admit(Deque)}.
+     */
+    private static final ThreadLocal<Deque<CompletableFuture<Void>>> ADMITTING = new ThreadLocal<>();
+
+    private final Executor executor;
+
+    // --- Guarded by 'this'
+    private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private int limit;
+    private int running = 0;
+
+    public LimitBulkhead(int limit, Executor executor) {
+        if (limit < 1) {
+            throw new IllegalArgumentException(
+                "Bulkhead limit must be positive: " + limit
+            );
+        }
+        this.limit = limit;
+        this.executor = executor;
+    }
+
+    @Override
+    public <R, V> Operation.Async<R, V> decorate(Operation<R, V> op) {
+        return () ->
+            acquire()
+                .thenCompose(
+                    v -> {
+                        final long start = System.nanoTime();
+                        return run(op)
+                            .whenComplete(
+                                (results, error) ->
+                                    release(System.nanoTime() - start, error)
+                            );
+                    }
+                );
+    }
+
+    /**
+     * Return the current limit.
+     * @return maximum number of concurrent operations
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Return the number of running operations.
+     * @return number of admitted, uncompleted operations
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * Called whenever an operation has completed, allowing subclasses to
+     * adjust the limit. Runs while holding the bulkhead's lock.
+     * @param limit the current limit
+     * @param nanos duration of the operation
+     * @param failed whether the operation failed
+     * @return the new limit
+     */
+    protected int adjustLimit(int limit, long nanos, boolean failed) {
+        return limit;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R, V> CompletableFuture<Results<R, V>> run(Operation<R, V> op) {
+        if (op instanceof Operation.Async) {
+            return Futures.start((Operation.Async<R, V>) op);
+        }
+        if (executor != null) {
+            return CompletableFuture.supplyAsync(op::runOperation, executor);
+        }
+        return Futures.supply(op::runOperation);
+    }
+
+    private CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (running < limit) {
+                running++;
+                return CompletableFuture.completedFuture(null);
+            }
+            final CompletableFuture<Void> permit = new CompletableFuture<>();
+            waiting.add(permit);
+            return permit;
+        }
+    }
+
+    private void release(long nanos, Throwable error) {
+        final Deque<CompletableFuture<Void>> admitted = new ArrayDeque<>();
+        synchronized (this) {
+            running--;
+            try {
+                limit = Math.max(1, adjustLimit(limit, nanos, error != null));
+            } finally {
+                while (running < limit && !waiting.isEmpty()) {
+                    running++;
+                    admitted.add(waiting.poll());
+                }
+            }
+        }
+        admit(admitted);
+    }
+
+    /**
+     * Complete the given permits, starting their operations. If the current
+     * thread is already completing permits further up its stack, they are
+     * handed to that loop instead of being completed recursively.
+     */
+    private static void admit(Deque<CompletableFuture<Void>> permits) {
+        if (permits.isEmpty()) {
+            return;
+        }
+        final Deque<CompletableFuture<Void>> admitting = ADMITTING.get();
+        if (admitting != null) {
+            admitting.addAll(permits);
+            return;
+        }
+        ADMITTING.set(permits);
+        try {
+            CompletableFuture<Void> permit;
+            while ((permit = permits.poll()) != null) {
+                permit.complete(null);
+            }
+        } finally {
+            ADMITTING.remove();
+        }
+    }
+}
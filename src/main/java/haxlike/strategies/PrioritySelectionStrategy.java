@@ -57,7 +57,7 @@ public class PrioritySelectionStrategy implements SelectionStrategy {
         return batches.groupBy(this::toPriority, Ord.intOrd).max().some()._2();
     }
 
-    private <R> Integer toPriority(List<R> batch) {
+    <R> Integer toPriority(List<R> batch) {
         final Class<?> cls = batch.head().getClass();
         return toPriority(cls);
     }
@@ -0,0 +1,163 @@
+package haxlike.strategies;
+
+import fj.data.List;
+import haxlike.ResolutionStrategy;
+import haxlike.impl.Futures;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Value;
+
+/**
+ * Resolution strategy running every blocking operation on its own task of an
+ * {@link ExecutorService}, treating all operations of an iteration as a single
+ * unit: once one of them fails, or the optional deadline has passed, all
+ * remaining operations are cancelled (interrupting blocking ones) and the
+ * iteration fails. If the executor rejects an operation, the operations
+ * started so far are cancelled the same way.
+ * <p>
+ * This is meant to be used with an executor creating a thread per task, e.g.
+ * virtual threads, see {@link haxlike.ResolutionStrategies#virtualThreads()}.
+ */
+@Value
+public class StructuredResolutionStrategy implements ResolutionStrategy {
+    ExecutorService executor;
+
+    /**
+     * Maximum time all operations of a single iteration may take; unlimited
+     * if this is not set.
+     */
+    Duration deadline;
+
+    @Override
+    public <R, V> List<Results<R, V>> run(List<Operation<R, V>> operations) {
+        try {
+            return runAsync(operations).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public <R, V> CompletableFuture<List<Results<R, V>>> runAsync(
+        List<Operation<R, V>> operations
+    ) {
+        return new Scope<R, V>().start(operations);
+    }
+
+    /**
+     * All operations of a single iteration.
+     */
+    private final class Scope<R, V> {
+        private final ArrayList<Future<?>> tasks = new ArrayList<>();
+        private final ArrayList<CompletableFuture<?>> started = new ArrayList<>();
+        private final CompletableFuture<List<Results<R, V>>> result = new CompletableFuture<>();
+
+        CompletableFuture<List<Results<R, V>>> start(
+            List<Operation<R, V>> operations
+        ) {
+            final List<CompletableFuture<Results<R, V>>> futures;
+            synchronized (this) {
+                try {
+                    futures = operations.map(this::start);
+                } catch (RejectedExecutionException e) {
+                    fail(e);
+                    return result;
+                }
+            }
+            futures.forEach(f -> f.whenComplete((r, e) -> failOn(e)));
+            Futures
+                .sequence(futures)
+                .whenComplete(
+                    (results, error) -> {
+                        if (error == null) {
+                            result.complete(results);
+                        }
+                    }
+                );
+            if (deadline != null) {
+                // cancelling the timer unschedules it, so completed scopes
+                // are not retained until their deadline
+                final CompletableFuture<Void> timer = new CompletableFuture<Void>()
+                    .orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS);
+                timer.whenComplete(
+                    (v, e) -> {
+                        if (e instanceof TimeoutException) {
+                            timeout();
+                        }
+                    }
+                );
+                result.whenComplete((r, e) -> timer.cancel(false));
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private CompletableFuture<Results<R, V>> start(Operation<R, V> op) {
+            final CompletableFuture<Results<R, V>> future;
+            if (op instanceof Operation.Async) {
+                future = Futures.start((Operation.Async<R, V>) op);
+            } else {
+                final CompletableFuture<Results<R, V>> task;
+                task = new CompletableFuture<>();
+                tasks.add(executor.submit(() -> complete(task, op)));
+                future = task;
+            }
+            started.add(future);
+            return future;
+        }
+
+        private void complete(
+            CompletableFuture<Results<R, V>> task,
+            Operation<R, V> op
+        ) {
+            try {
+                task.complete(op.runOperation());
+            } catch (Throwable e) {
+                task.completeExceptionally(e);
+            }
+        }
+
+        private void timeout() {
+            if (!result.isDone()) {
+                fail(
+                    new IllegalStateException(
+                        "Iteration deadline of " + deadline + " exceeded.",
+                        new TimeoutException()
+                    )
+                );
+            }
+        }
+
+        private void failOn(Throwable error) {
+            if (error != null) {
+                fail(
+                    error instanceof CompletionException &&
+                        error.getCause() != null
+                        ? error.getCause()
+                        : error
+                );
+            }
+        }
+
+        private void fail(Throwable error) {
+            if (result.completeExceptionally(error)) {
+                synchronized (this) {
+                    tasks.forEach(t -> t.cancel(true));
+                    started.forEach(f -> f.cancel(false));
+                }
+            }
+        }
+    }
+}
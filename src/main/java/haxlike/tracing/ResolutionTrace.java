@@ -0,0 +1,268 @@
+package haxlike.tracing;
+
+import fj.data.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+
+/**
+ * Trace of a single resolution, recorded by {@link ResolutionTracer}. All
+ * times are in nanoseconds, relative to the start of the resolution.
+ * <p>
+ * Traces can be exported as Chrome trace-event JSON, to be opened in
+ * {@code chrome://tracing} or Perfetto, or as collapsed stacks, to be
+ * rendered by flame graph tools.
+ */
+@Value
+public class ResolutionTrace {
+    long durationNanos;
+
+    /**
+     * Message of the failure, or null if the resolution was successful.
+     */
+    String error;
+
+    List<Iteration> iterations;
+    List<OperationSpan> operations;
+
+    /**
+     * A single iteration, or dispatch when pipelining.
+     */
+    @Value
+    public static class Iteration {
+        int number;
+        int resolvables;
+        long startNanos;
+        long durationNanos;
+        List<Batch> batches;
+    }
+
+    /**
+     * A batch passed to a resolver.
+     */
+    @Value
+    public static class Batch {
+        String resolvableKey;
+        int size;
+    }
+
+    /**
+     * A single operation created by a resolver.
+     */
+    @Value
+    public static class OperationSpan {
+        String resolvableKey;
+        long startNanos;
+        long durationNanos;
+        long threadId;
+        String threadName;
+        int resultCount;
+
+        /**
+         * Message of the failure, or null if the operation was successful.
+         */
+        String error;
+    }
+
+    // --- Chrome Trace
+    /**
+     * Export this trace in the Chrome trace-event format.
+     * @return JSON document
+     */
+    public String toChromeTrace() {
+        final StringBuilder out = new StringBuilder();
+        writeChromeTrace(out);
+        return out.toString();
+    }
+
+    /**
+     * Write this trace in the Chrome trace-event format. The resolution and
+     * its iterations are shown on a separate "resolution" track, operations
+     * on the track of the thread that ran them.
+     * @param out target to write the JSON document to
+     */
+    public void writeChromeTrace(Appendable out) {
+        try {
+            final Map<Long, String> threads = new LinkedHashMap<>();
+            operations.forEach(op -> threads.put(op.threadId, op.threadName));
+
+            out.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            appendMetadata(out, 0, "resolution");
+            for (Map.Entry<Long, String> thread : threads.entrySet()) {
+                out.append(',');
+                appendMetadata(out, thread.getKey(), thread.getValue());
+            }
+
+            out.append(',');
+            appendSpan(out, "resolution", "resolution", 0, 0, durationNanos);
+            appendArgs(out, "error", error);
+            for (Iteration iteration : iterations) {
+                out.append(',');
+                appendSpan(
+                    out,
+                    "iteration #" + iteration.number,
+                    "iteration",
+                    0,
+                    iteration.startNanos,
+                    iteration.durationNanos
+                );
+                out
+                    .append(",\"args\":{\"resolvables\":")
+                    .append(String.valueOf(iteration.resolvables))
+                    .append(",\"batches\":{");
+                boolean first = true;
+                for (Batch batch : iteration.batches) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    appendString(out, batch.resolvableKey);
+                    out.append(':').append(String.valueOf(batch.size));
+                }
+                out.append("}}}");
+            }
+            for (OperationSpan op : operations) {
+                out.append(',');
+                appendSpan(
+                    out,
+                    op.resolvableKey,
+                    "operation",
+                    op.threadId,
+                    op.startNanos,
+                    op.durationNanos
+                );
+                out
+                    .append(",\"args\":{\"results\":")
+                    .append(String.valueOf(op.resultCount));
+                if (op.error != null) {
+                    out.append(",\"error\":");
+                    appendString(out, op.error);
+                }
+                out.append("}}");
+            }
+            out.append("]}");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendMetadata(
+        Appendable out,
+        long tid,
+        String threadName
+    )
+        throws IOException {
+        out
+            .append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":")
+            .append(String.valueOf(tid))
+            .append(",\"args\":{\"name\":");
+        appendString(out, threadName);
+        out.append("}}");
+    }
+
+    /**
+     * Append an unterminated complete ("X") event, so arguments can follow.
+     */
+    private static void appendSpan(
+        Appendable out,
+        String name,
+        String category,
+        long tid,
+        long startNanos,
+        long durationNanos
+    )
+        throws IOException {
+        out.append("{\"name\":");
+        appendString(out, name);
+        out
+            .append(",\"cat\":\"")
+            .append(category)
+            .append("\",\"ph\":\"X\",\"pid\":1,\"tid\":")
+            .append(String.valueOf(tid))
+            .append(",\"ts\":")
+            .append(micros(startNanos))
+            .append(",\"dur\":")
+            .append(micros(durationNanos));
+    }
+
+    private static void appendArgs(Appendable out, String key, String value)
+        throws IOException {
+        if (value != null) {
+            out.append(",\"args\":{\"").append(key).append("\":");
+            appendString(out, value);
+            out.append('}');
+        }
+        out.append('}');
+    }
+
+    private static void appendString(Appendable out, String value)
+        throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    // --- Collapsed Stacks
+    /**
+     * Export this trace as collapsed stacks, one line per frame, weighted by
+     * microseconds. Operations appear below the iteration that dispatched
+     * them; the iteration's own frame covers the wall time not spent in
+     * operations, which is the engine overhead for sequential resolution.
+     * @return collapsed stacks, e.g. for {@code flamegraph.pl}
+     */
+    public String toCollapsedStacks() {
+        final Map<String, Long> stacks = new LinkedHashMap<>();
+        for (Iteration iteration : iterations) {
+            final String frame = "resolution;iteration #" + iteration.number;
+            long busy = 0;
+            for (OperationSpan op : operationsOf(iteration)) {
+                stacks.merge(
+                    frame + ";" + op.resolvableKey.replace(';', '_'),
+                    op.durationNanos,
+                    Long::sum
+                );
+                busy += op.durationNanos;
+            }
+            stacks.merge(
+                frame,
+                Math.max(0, iteration.durationNanos - busy),
+                Long::sum
+            );
+        }
+
+        final StringBuilder out = new StringBuilder();
+        stacks.forEach(
+            (stack, nanos) -> {
+                final long weight = TimeUnit.NANOSECONDS.toMicros(nanos);
+                if (weight > 0) {
+                    out.append(stack).append(' ').append(weight).append('\n');
+                }
+            }
+        );
+        return out.toString();
+    }
+
+    private List<OperationSpan> operationsOf(Iteration iteration) {
+        final long end = iteration.startNanos + iteration.durationNanos;
+        return operations.filter(
+            op -> op.startNanos >= iteration.startNanos && op.startNanos < end
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package haxlike.tracing;
+
+import haxlike.EngineListener;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * {@link EngineListener} recording a {@link ResolutionTrace} for a random
+ * sample of resolutions, passing every completed trace to the given
+ * consumer. Resolutions that are not sampled are not observed at all, so a
+ * low sample rate, e.g. 1%, keeps the overhead negligible.
+ */
+public class ResolutionTracer implements EngineListener {
+    private final double sampleRate;
+    private final Consumer<ResolutionTrace> consumer;
+
+    /**
+     * Create a new tracer.
+     * @param sampleRate ratio of resolutions to trace, between 0 and 1
+     * @param consumer consumer of completed traces, called on the thread
+     * completing the resolution
+     */
+    public ResolutionTracer(
+        double sampleRate,
+        Consumer<ResolutionTrace> consumer
+    ) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException(
+                "Sample rate must be between 0 and 1: " + sampleRate
+            );
+        }
+        this.sampleRate = sampleRate;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public EngineListener forResolution() {
+        final boolean sampled =
+            sampleRate >= 1 ||
+            ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return sampled ? new TraceRecording(consumer) : NONE;
+    }
+}
@@ -0,0 +1,113 @@
+package haxlike.tracing;
+
+import fj.data.List;
+import haxlike.EngineListener;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Listener recording the events of a single resolution.
+ */
+final class TraceRecording implements EngineListener {
+    private final Consumer<ResolutionTrace> consumer;
+    private final long origin = System.nanoTime();
+
+    // --- Guarded by 'this'
+    private final ArrayList<IterationStart> iterations = new ArrayList<>();
+    private final ArrayList<ResolutionTrace.OperationSpan> operations = new ArrayList<>();
+
+    TraceRecording(Consumer<ResolutionTrace> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public synchronized void onIteration(int iteration, int resolvables) {
+        iterations.add(new IterationStart(iteration, resolvables, elapsed()));
+    }
+
+    @Override
+    public synchronized void onBatch(String resolvableKey, int size) {
+        if (!iterations.isEmpty()) {
+            iterations
+                .get(iterations.size() - 1)
+                .batches.add(new ResolutionTrace.Batch(resolvableKey, size));
+        }
+    }
+
+    @Override
+    public void onOperation(
+        String resolvableKey,
+        long nanos,
+        int resultCount,
+        Throwable error
+    ) {
+        final Thread thread = Thread.currentThread();
+        final ResolutionTrace.OperationSpan span = new ResolutionTrace.OperationSpan(
+            resolvableKey,
+            Math.max(0, elapsed() - nanos),
+            nanos,
+            thread.getId(),
+            thread.getName(),
+            resultCount,
+            error == null ? null : String.valueOf(error)
+        );
+        synchronized (this) {
+            operations.add(span);
+        }
+    }
+
+    @Override
+    public void onResolution(long nanos, Throwable error) {
+        final ResolutionTrace trace;
+        synchronized (this) {
+            trace =
+                new ResolutionTrace(
+                    nanos,
+                    error == null ? null : String.valueOf(error),
+                    finishIterations(nanos),
+                    List.iterableList(operations)
+                );
+        }
+        consumer.accept(trace);
+    }
+
+    private List<ResolutionTrace.Iteration> finishIterations(long end) {
+        final ArrayList<ResolutionTrace.Iteration> result = new ArrayList<>();
+        for (int i = 0; i < iterations.size(); i++) {
+            final IterationStart start = iterations.get(i);
+            final long next = i + 1 < iterations.size()
+                ? iterations.get(i + 1).startNanos
+                : end;
+            result.add(
+                new ResolutionTrace.Iteration(
+                    start.number,
+                    start.resolvables,
+                    start.startNanos,
+                    Math.max(0, next - start.startNanos),
+                    List.iterableList(start.batches)
+                )
+            );
+        }
+        return List.iterableList(result);
+    }
+
+    private long elapsed() {
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * An iteration whose duration is not known yet.
+     */
+    private static final class IterationStart {
+        private final int number;
+        private final int resolvables;
+        private final long startNanos;
+        private final ArrayList<ResolutionTrace.Batch> batches = new ArrayList<>();
+
+        IterationStart(int number, int resolvables, long startNanos) {
+            this.number = number;
+            this.resolvables = resolvables;
+            this.startNanos = startNanos;
+        }
+    }
+}
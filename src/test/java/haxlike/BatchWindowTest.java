@@ -0,0 +1,142 @@
+package haxlike;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.resolvers.Resolver;
+import haxlike.strategies.ExecutorResolutionStrategy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BatchWindowTest {
+    private java.util.List<List<Integer>> batches;
+    private Resolver<Object, Integer, Integer> Recording;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        batches = new CopyOnWriteArrayList<>();
+        Recording =
+            Resolver.declare(
+                "Recording",
+                (List<Integer> values) -> {
+                    batches.add(values);
+                    return values.map(v -> v * 10);
+                }
+            );
+    }
+
+    @Test
+    void resolveAsync_shouldMergeBatchesOfConcurrentResolutions() {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Recording)
+            .withBatchWindow(Recording, Duration.ofMillis(50), 100)
+            .build(null);
+
+        final CompletableFuture<List<Integer>> a = engine.resolveAsync(
+            list(Recording.fetch(1), Recording.fetch(2))
+        );
+        final CompletableFuture<Integer> b = engine.resolveAsync(
+            Recording.fetch(2).map(x -> x + 1)
+        );
+
+        assertThat(a.join()).containsExactly(10, 20);
+        assertThat(b.join()).isEqualTo(21);
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void resolveAsync_shouldFlushFullWindowsEarly() throws Exception {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Recording)
+            .withBatchWindow(Recording, Duration.ofMinutes(1), 2)
+            .build(null);
+
+        final CompletableFuture<Integer> a = engine.resolveAsync(
+            Recording.fetch(1)
+        );
+        final CompletableFuture<Integer> b = engine.resolveAsync(
+            Recording.fetch(2)
+        );
+
+        assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo(10);
+        assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo(20);
+        assertThat(batches).containsExactly(List.list(1, 2));
+    }
+
+    @Test
+    void resolve_shouldWaitForWindow() {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Recording)
+            .withBatchWindow(Recording, Duration.ZERO, 100)
+            .build(null);
+
+        assertThat(engine.resolve(Recording.fetch(3))).isEqualTo(30);
+    }
+
+    @Test
+    void resolve_shouldNotDeadlockOnExhaustedExecutor() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            final Engine engine = Engine
+                .builder()
+                .withResolver(Recording)
+                .withBatchWindow(Recording, Duration.ofMillis(20), 100)
+                .withResolutionStrategy(
+                    new ExecutorResolutionStrategy(executor)
+                )
+                .build(null);
+
+            final java.util.List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final int value = i;
+                results.add(
+                    callers.submit(() -> engine.resolve(Recording.fetch(value)))
+                );
+            }
+
+            for (int i = 0; i < 4; i++) {
+                assertThat(results.get(i).get(5, TimeUnit.SECONDS))
+                    .isEqualTo(i * 10);
+            }
+        } finally {
+            callers.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void build_shouldFailForUnknownResolver() {
+        final EngineBuilder<Object> builder = Engine
+            .builder()
+            .withBatchWindow("Unknown", Duration.ZERO, 100);
+
+        assertThatThrownBy(() -> builder.build(null))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,164 @@
+package haxlike;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.resolvers.Resolver;
+import haxlike.impl.Futures;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import haxlike.strategies.AdaptiveBulkhead;
+import haxlike.strategies.LimitBulkhead;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BulkheadTest {
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private ExecutorService executor;
+    private Resolver<Object, Integer, Integer> Slow;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        Slow =
+            Resolver.declare(
+                "Slow",
+                (List<Integer> values) -> {
+                    threads.add(Thread.currentThread());
+                    maxRunning.accumulateAndGet(
+                        running.incrementAndGet(),
+                        Math::max
+                    );
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return values.map(v -> v * 10);
+                }
+            );
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Node<List<Integer>> fetchAll() {
+        return list(List.range(0, 8).map(Slow::fetch));
+    }
+
+    @Test
+    void resolve_shouldRespectConcurrencyLimit() {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Slow, 1)
+            .withBulkhead(Slow, Bulkheads.limit(2))
+            .withResolutionStrategy(
+                ResolutionStrategies.executorServiceStrategy(executor)
+            )
+            .build(null);
+
+        assertThat(engine.resolve(fetchAll()))
+            .containsExactlyElementsOf(List.range(0, 8).map(v -> v * 10));
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    @Test
+    void resolve_shouldRunOnDedicatedExecutor() {
+        final Set<Thread> pool = ConcurrentHashMap.newKeySet();
+        final ExecutorService dedicated = Executors.newFixedThreadPool(
+            3,
+            r -> {
+                final Thread t = new Thread(r);
+                pool.add(t);
+                return t;
+            }
+        );
+        try {
+            final Engine engine = Engine
+                .builder()
+                .withResolver(Slow, 1)
+                .withBulkhead(Slow, Bulkheads.limit(3, dedicated))
+                .build(null);
+
+            assertThat(engine.resolve(fetchAll())).hasSize(8);
+            assertThat(pool).containsAll(threads);
+        } finally {
+            dedicated.shutdownNow();
+        }
+    }
+
+    @Test
+    void adaptive_shouldAdjustLimitToLatency() {
+        final AdaptiveBulkhead bulkhead = (AdaptiveBulkhead) Bulkheads.adaptive(
+            1,
+            4,
+            Duration.ofMinutes(1)
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Slow, 1)
+            .withBulkhead(Slow, bulkhead)
+            .withResolutionStrategy(
+                ResolutionStrategies.executorServiceStrategy(executor)
+            )
+            .build(null);
+
+        engine.resolve(fetchAll());
+
+        assertThat(bulkhead.getLimit()).isBetween(2, 4);
+        assertThat(bulkhead.getRunning()).isZero();
+    }
+
+    @Test
+    void limit_shouldAdmitLongQueuesWithoutGrowingTheStack() {
+        final LimitBulkhead bulkhead = (LimitBulkhead) Bulkheads.limit(1);
+        final CompletableFuture<Results<Integer, Integer>> gate =
+            new CompletableFuture<>();
+        final CompletableFuture<?> first = Futures.start(
+            bulkhead.decorate(Operation.async(() -> gate))
+        );
+        final List<CompletableFuture<Results<Integer, Integer>>> queued = List
+            .range(0, 20_000)
+            .map(
+                i ->
+                    Futures.start(
+                        bulkhead.<Integer, Integer>decorate(
+                            () -> Results.single(i, i)
+                        )
+                    )
+            );
+
+        gate.complete(Results.empty());
+
+        assertThat(first).isCompleted();
+        assertThat(queued.filter(f -> !f.isDone())).isEmpty();
+        assertThat(queued.last().join().getSome(19_999)).isEqualTo(19_999);
+        assertThat(bulkhead.getRunning()).isZero();
+    }
+}
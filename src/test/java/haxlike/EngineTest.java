@@ -4,9 +4,16 @@ import static haxlike.Nodes.*;
 import static org.assertj.core.api.Assertions.*;
 
 import fj.data.List;
+import haxlike.nodes.NodeDecorator;
 import haxlike.resolvers.Provider;
 import haxlike.resolvers.Resolver;
 import haxlike.resolvers.Results;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import lombok.Value;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -26,6 +33,12 @@ public class EngineTest {
         (Integer value) -> value
     );
 
+    public static final Resolver<Object, Integer, Integer> TestValueAsync = Resolver.declareAsync(
+        "Async",
+        (List<Integer> values) ->
+            CompletableFuture.supplyAsync(() -> Results.zip(values, values))
+    );
+
     public static final Provider<Object, Integer> TestList = Provider.declare(
         "Provider",
         env -> 1
@@ -50,6 +63,7 @@ public class EngineTest {
                 .withResolver(SlowResolvable.class, EngineTest::slowResolve)
                 .withResolver(TestValue)
                 .withResolver(TestValueSingle)
+                .withResolver(TestValueAsync)
                 .withResolver(TestList)
                 .withCommonForkJoinPool()
                 .withSelectionStrategy(SelectionStrategies.maxStrategy(3))
@@ -165,6 +179,198 @@ public class EngineTest {
         assertThat(engine.resolve(node)).isEqualTo(expected);
     }
 
+    @Test
+    void resolve_shouldResolveAsyncResolver() {
+        Node<Integer> node = Nodes
+            .list(TestValueAsync.fetch(1), TestValue.fetch(2))
+            .foldLeft((a, b) -> a + b, 0);
+        Integer expected = 3;
+
+        assertThat(engine.resolve(node)).isEqualTo(expected);
+    }
+
+    @Test
+    void resolveAsync_shouldResolveTraverse() {
+        Node<Integer> node = list(slow(1), TestValueAsync.fetch(2))
+            .flatMapEach(EngineTest::promise)
+            .mapEach(x -> x + 1)
+            .foldLeft((a, b) -> a + b, 0);
+        Integer expected = 5;
+
+        assertThat(engine.resolveAsync(node).join()).isEqualTo(expected);
+    }
+
+    @Test
+    void resolveAsync_shouldCompleteExceptionallyOnMissingResolver() {
+        Node<Integer> node = new UnknownResolvable();
+
+        assertThatThrownBy(engine.resolveAsync(node)::join)
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void resolveAsync_shouldNotWaitForBlockingOperations() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Resolver<Object, Integer, Integer> Gated = Resolver.declare(
+            "Gated",
+            (List<Integer> values) -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return values;
+            }
+        );
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Engine executorEngine = Engine
+                .builder()
+                .withResolver(Gated)
+                .withExecutorService(executor)
+                .build(null);
+
+            final CompletableFuture<Integer> result = executorEngine.resolveAsync(
+                Gated.fetch(1)
+            );
+
+            assertThat(result).isNotDone();
+            latch.countDown();
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void resolve_shouldSplitBatchesIntoChunks() {
+        final java.util.List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final Resolver<Object, Integer, Integer> Recording = Resolver.declare(
+            "Recording",
+            (List<Integer> values) -> {
+                batchSizes.add(values.length());
+                return values;
+            }
+        );
+        final Engine chunkedEngine = Engine
+            .builder()
+            .withResolver(Recording, 3)
+            .withCommonForkJoinPool()
+            .build(null);
+
+        final Node<List<Integer>> node = list(
+            List.range(0, 7).map(Recording::fetch)
+        );
+
+        assertThat(chunkedEngine.resolve(node))
+            .containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(batchSizes).containsExactlyInAnyOrder(3, 3, 1);
+    }
+
+    @Test
+    void resolveAll_shouldSplitBatchesIntoChunks() {
+        final java.util.List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final Resolver<Object, Integer, Integer> Recording = Resolver
+            .declare(
+                "Recording",
+                (List<Integer> values) -> {
+                    batchSizes.add(values.length());
+                    return values;
+                }
+            )
+            .withMaxBatchSize(2);
+
+        assertThat(Recording.resolveAll(null, List.range(0, 5)))
+            .containsExactly(0, 1, 2, 3, 4);
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void resolve_shouldDeduplicateResolvablesOfCustomNodes() {
+        final java.util.List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final Resolver<Object, Integer, Integer> Recording = Resolver.declare(
+            "Recording",
+            (List<Integer> values) -> {
+                batchSizes.add(values.length());
+                return values;
+            }
+        );
+        final Engine recordingEngine = Engine
+            .builder()
+            .withResolver(Recording)
+            .build(null);
+        final Node<List<Integer>> inner = list(
+            Recording.fetch(1),
+            Recording.fetch(2)
+        );
+        final Node<List<Integer>> node = new NodeDecorator<>(inner) {
+
+            @Override
+            public List<Resolvable<?>> getResolvables() {
+                return inner.getResolvables().append(inner.getResolvables());
+            }
+        };
+
+        assertThat(recordingEngine.resolve(node)).containsExactly(1, 2);
+        assertThat(batchSizes).containsExactly(2);
+    }
+
+    @Test
+    void warm_shouldFillCacheInChunks() {
+        final java.util.List<Integer> sizes = new CopyOnWriteArrayList<>();
+        final Resolver<Object, Integer, Integer> counting = Resolver.declare(
+            "Counting",
+            (List<Integer> values) -> {
+                sizes.add(values.length());
+                return values;
+            }
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(counting)
+            .build(null);
+        final EngineCache cache = EngineCaches.bounded().build();
+        cache.update(Results.single(counting.fetch(1), 1));
+
+        final int warmed = engine
+            .warm(List.range(0, 10).map(counting::fetch), cache, 4)
+            .join();
+
+        assertThat(warmed).isEqualTo(9);
+        assertThat(sizes).containsExactly(4, 4, 1);
+        assertThat(engine.resolve(counting.fetch(7), cache)).isEqualTo(7);
+        assertThat(sizes).hasSize(3);
+    }
+
+    @Test
+    void warm_shouldContinueAfterFailingChunks() {
+        final Resolver<Object, Integer, Integer> failing = Resolver.declare(
+            "Failing",
+            (List<Integer> values) -> {
+                if (values.exists(v -> v == 4)) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return values;
+            }
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(failing)
+            .build(null);
+        final EngineCache cache = EngineCaches.bounded().build();
+
+        assertThatThrownBy(
+                engine
+                    .warm(List.range(0, 10).map(failing::fetch), cache, 4)::join
+            )
+            .hasCauseInstanceOf(IllegalStateException.class);
+        final List<Resolvable<Integer>> all = List
+            .range(0, 10)
+            .map(failing::fetch);
+        assertThat(cache.getCached(all).size()).isEqualTo(6);
+    }
+
     // --- Test Resolvable
     @Value
     private static class TestResolvable implements Resolvable<Integer> {
@@ -176,6 +382,9 @@ public class EngineTest {
         Integer value;
     }
 
+    @Value
+    private static class UnknownResolvable implements Resolvable<Integer> {}
+
     private static Node<Integer> promise(int i) {
         return new TestResolvable(i);
     }
@@ -0,0 +1,122 @@
+package haxlike;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.resolvers.Resolver;
+import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PipeliningTest {
+    private CompletableFuture<Void> gate;
+    private Resolver<Object, Integer, Integer> Gate;
+    private Resolver<Object, Integer, Integer> Chain;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        gate = new CompletableFuture<>();
+        Gate =
+            Resolver.declareAsync(
+                "Gate",
+                (List<Integer> values) ->
+                    gate.thenApply(v -> Results.zip(values, values))
+            );
+        Chain =
+            Resolver.declare(
+                "Chain",
+                (List<Integer> values) -> {
+                    if (values.exists(v -> v == 3)) {
+                        gate.complete(null);
+                    }
+                    return values;
+                }
+            );
+    }
+
+    private Node<Integer> gatedNode() {
+        final Node<Integer> chain = Chain
+            .fetch(1)
+            .flatMap(x -> Chain.fetch(x + 1))
+            .flatMap(x -> Chain.fetch(x + 1));
+        return tuple(Gate.fetch(10), chain).map((a, b) -> a + b);
+    }
+
+    @Test
+    void resolve_shouldNotWaitForSlowBatches() {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Gate)
+            .withResolver(Chain)
+            .withPipelining(Duration.ZERO)
+            .build(null);
+
+        assertThat(engine.resolve(gatedNode())).isEqualTo(13);
+    }
+
+    @Test
+    void resolveAsync_shouldCoalesceExposedResolvables() {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Gate)
+            .withResolver(Chain)
+            .withCommonForkJoinPool()
+            .withPipelining(Duration.ofMillis(5))
+            .build(null);
+
+        final Node<List<Integer>> node = list(
+            gatedNode(),
+            Chain.fetch(1).flatMap(x -> Chain.fetch(x + 1))
+        );
+
+        assertThat(engine.resolveAsync(node).join()).containsExactly(13, 2);
+    }
+
+    @Test
+    void resolve_shouldFailIfMaximumGenerationIsExceeded() {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Gate)
+            .withResolver(Chain)
+            .withMaxIterationCount(2)
+            .withPipelining(Duration.ZERO)
+            .build(null);
+
+        assertThatThrownBy(() -> engine.resolve(gatedNode()))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void resolve_shouldNotCountCachedRoundsAsGenerations() {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Chain)
+            .withMaxIterationCount(1)
+            .withPipelining(Duration.ZERO)
+            .build(null);
+        final EngineCache cache = EngineCaches.bounded().build();
+        cache.update(Results.single(Chain.fetch(1), 1));
+        cache.update(Results.single(Chain.fetch(2), 2));
+        final Node<Integer> node = Chain
+            .fetch(1)
+            .flatMap(x -> Chain.fetch(x + 1))
+            .flatMap(x -> Chain.fetch(x + 1));
+
+        assertThat(engine.resolve(node, cache)).isEqualTo(3);
+    }
+}
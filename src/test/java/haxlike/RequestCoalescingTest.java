@@ -0,0 +1,148 @@
+package haxlike;
+
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.impl.Futures;
+import haxlike.resolvers.Resolver;
+import haxlike.resolvers.Results;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RequestCoalescingTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private CompletableFuture<Void> gate;
+    private Resolver<Object, Integer, Integer> Gate;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        gate = new CompletableFuture<>();
+        Gate =
+            Resolver.declareAsync(
+                "Gate",
+                (List<Integer> values) ->
+                    calls.getAndIncrement() == 0
+                        ? gate.thenApply(v -> Results.zip(values, values))
+                        : CompletableFuture.completedFuture(
+                            Results.zip(values, values)
+                        )
+            );
+    }
+
+    private Engine engine(boolean requestCoalescing) {
+        final EngineBuilder<Object> builder = Engine
+            .builder()
+            .withResolver(Gate);
+        return requestCoalescing
+            ? builder.withRequestCoalescing().build(null)
+            : builder.build(null);
+    }
+
+    @Test
+    void resolveAsync_shouldSubscribeToResolvablesInFlight() {
+        final Engine engine = engine(true);
+
+        final CompletableFuture<Integer> a = engine.resolveAsync(Gate.fetch(1));
+        final CompletableFuture<Integer> b = engine.resolveAsync(Gate.fetch(1));
+        gate.complete(null);
+
+        assertThat(a.join()).isEqualTo(1);
+        assertThat(b.join()).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void resolveAsync_shouldFetchAgainIfResolvableInFlightFails() {
+        final Engine engine = engine(true);
+
+        final CompletableFuture<Integer> a = engine.resolveAsync(Gate.fetch(1));
+        final CompletableFuture<Integer> b = engine.resolveAsync(Gate.fetch(1));
+        gate.completeExceptionally(new IllegalStateException("failed"));
+
+        assertThatThrownBy(a::join).isInstanceOf(CompletionException.class);
+        assertThat(b.join()).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void resolveAsync_shouldNotCoalesceByDefault() {
+        final Engine engine = engine(false);
+
+        final CompletableFuture<Integer> a = engine.resolveAsync(Gate.fetch(1));
+        final CompletableFuture<Integer> b = engine.resolveAsync(Gate.fetch(1));
+        gate.complete(null);
+
+        assertThat(a.join()).isEqualTo(1);
+        assertThat(b.join()).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void resolveAsync_shouldNotDeadlockOnCrossedClaims() throws Exception {
+        final Resolver<Object, Integer, Integer> Missing = Resolver
+            .declareAsync(
+                "Missing",
+                (List<Integer> values) ->
+                    CompletableFuture.supplyAsync(
+                        Results::<Integer, Integer>empty,
+                        CompletableFuture.delayedExecutor(
+                            1,
+                            TimeUnit.MILLISECONDS
+                        )
+                    )
+            );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Missing)
+            .withRequestCoalescing()
+            .build(null);
+        final List<Integer> keys = List.range(0, 50);
+        final List<Node<List<Integer>>> nodes = List
+            .range(0, 400)
+            .map(
+                i ->
+                    Nodes.list(
+                        (i % 2 == 0 ? keys : keys.reverse()).map(
+                            k -> (Node<Integer>) Missing.fetch(k)
+                        )
+                    )
+            );
+
+        final ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            final List<CompletableFuture<Throwable>> results = nodes.map(
+                node ->
+                    CompletableFuture
+                        .supplyAsync(() -> engine.resolveAsync(node), pool)
+                        .thenCompose(f -> f)
+                        .handle((v, e) -> e)
+            );
+
+            // nothing is ever found, so all resolutions have to give up
+            final List<Throwable> errors = Futures
+                .sequence(results)
+                .get(20, TimeUnit.SECONDS);
+            assertThat(errors.filter(e -> e == null)).isEmpty();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package haxlike.caches;
+
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.EngineCaches;
+import haxlike.Resolvable;
+import haxlike.metrics.EngineMetrics;
+import haxlike.resolvers.Resolver;
+import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+
+public class BoundedEngineCacheTest {
+    private final AtomicLong time = new AtomicLong();
+
+    @Test
+    void getCached_shouldOnlyReturnHits() {
+        final BoundedEngineCache cache = EngineCaches.bounded().build();
+        cache.update(Results.single(new Ref(1), 1));
+
+        assertThat(cached(cache, new Ref(1), new Ref(2)))
+            .containsExactly(new Ref(1));
+    }
+
+    @Test
+    void update_shouldRespectSmallMaximumSizes() {
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withMaximumSize(3)
+            .build();
+
+        for (int i = 0; i < 100; i++) {
+            cache.update(Results.single(new Ref(i), i));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void getCached_shouldNeverExpireEntriesWithUnboundedTtl() {
+        final Duration never = Duration.ofSeconds(Long.MAX_VALUE);
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withTicker(time::get)
+            .withExpireAfterWrite(never)
+            .withRefreshAfterWrite(never)
+            .build();
+        cache.update(Results.single(new Ref(1), 1));
+        time.addAndGet(Duration.ofDays(365).toNanos());
+
+        assertThat(cached(cache, new Ref(1))).containsExactly(new Ref(1));
+        assertThat(cache.drainStale()).isEmpty();
+    }
+
+    @Test
+    void update_shouldEvictLeastRecentlyUsedEntries() {
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withConcurrencyLevel(1)
+            .withMaximumSize(2)
+            .build();
+
+        cache.update(Results.single(new Ref(1), 1));
+        cache.update(Results.single(new Ref(2), 2));
+        cache.getCached(List.single(new Ref(1)));
+        cache.update(Results.single(new Ref(3), 3));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cached(cache, new Ref(1), new Ref(2)))
+            .containsExactly(new Ref(1));
+    }
+
+    @Test
+    void update_shouldEvictByWeight() {
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withConcurrencyLevel(1)
+            .withMaximumWeight(10, (r, v) -> (Integer) v)
+            .build();
+
+        cache.update(
+            Results.zip(List.list(new Ref(1), new Ref(2)), List.list(5, 6))
+        );
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cached(cache, new Ref(1), new Ref(2)))
+            .containsExactly(new Ref(2));
+    }
+
+    @Test
+    void getCached_shouldExpireEntriesPerResolvableKey() {
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withTicker(time::get)
+            .withExpireAfterWrite(Duration.ofSeconds(10))
+            .withExpireAfterWrite(Other.class.getName(), Duration.ofSeconds(1))
+            .build();
+        cache.update(Results.single(new Ref(1), 1));
+        cache.update(Results.single(new Other(1), 1));
+
+        time.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(cached(cache, new Ref(1))).containsExactly(new Ref(1));
+        assertThat(cached(cache, new Other(1))).isEmpty();
+    }
+
+    @Test
+    void resolve_shouldReuseEntriesAcrossResolutions() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Resolver<Object, Integer, Integer> counting = Resolver.declare(
+            "Counting",
+            (List<Integer> values) -> {
+                calls.incrementAndGet();
+                return values;
+            }
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(counting)
+            .build(null);
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withMaximumSize(100)
+            .build();
+
+        assertThat(engine.resolve(counting.fetch(1), cache)).isEqualTo(1);
+        assertThat(engine.resolve(counting.fetch(1), cache)).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getCached_shouldExpireAbsentEntriesSeparately() {
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withTicker(time::get)
+            .withExpireAfterWrite(Duration.ofSeconds(10))
+            .withExpireAbsentAfterWrite(Duration.ofSeconds(1))
+            .build();
+        cache.update(Results.single(new Ref(1), 1));
+        cache.update(Results.absent(new Ref(2)));
+
+        final Results<Ref, Integer> hits = cache.getCached(
+            List.single(new Ref(2))
+        );
+        assertThat(hits.isAbsent(new Ref(2))).isTrue();
+
+        time.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(cached(cache, new Ref(1), new Ref(2)))
+            .containsExactly(new Ref(1));
+    }
+
+    @Test
+    void resolve_shouldNotFetchAbsentEntriesAgain() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Resolver<Object, Integer, Integer> evens = Resolver.declare(
+            "Evens",
+            (List<Integer> ids) -> {
+                calls.incrementAndGet();
+                return Results.match(
+                    ids,
+                    ids.filter(id -> id % 2 == 0),
+                    id -> id
+                );
+            }
+        );
+        final Engine engine = Engine.builder().withResolver(evens).build(null);
+        final BoundedEngineCache cache = EngineCaches.bounded().build();
+
+        assertThat(engine.resolve(evens.fetch(1), cache)).isNull();
+        assertThat(engine.resolve(evens.fetch(1), cache)).isNull();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getCached_shouldQueueStaleEntriesOnce() {
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withTicker(time::get)
+            .withRefreshAfterWrite(Duration.ofSeconds(1))
+            .build();
+        cache.update(Results.single(new Ref(1), 1));
+
+        assertThat(cached(cache, new Ref(1))).containsExactly(new Ref(1));
+        assertThat(cache.drainStale()).isEmpty();
+
+        time.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        assertThat(cached(cache, new Ref(1))).containsExactly(new Ref(1));
+        assertThat(cached(cache, new Ref(1))).containsExactly(new Ref(1));
+        assertThat(cache.drainStale()).containsExactly(new Ref(1));
+        assertThat(cache.drainStale()).isEmpty();
+    }
+
+    @Test
+    void resolve_shouldRefreshStaleEntriesInBackground() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Resolver<Object, Integer, Integer> counting = Resolver.declare(
+            "Counting",
+            (List<Integer> values) -> {
+                final int call = calls.incrementAndGet();
+                return values.map(v -> v * call);
+            }
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(counting)
+            .withRefreshExecutor(Runnable::run)
+            .build(null);
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withTicker(time::get)
+            .withRefreshAfterWrite(Duration.ofSeconds(1))
+            .build();
+
+        assertThat(engine.resolve(counting.fetch(1), cache)).isEqualTo(1);
+        time.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(engine.resolve(counting.fetch(1), cache)).isEqualTo(1);
+        assertThat(engine.resolve(counting.fetch(1), cache)).isEqualTo(2);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void resolve_shouldRestoreStaleEntriesWithoutResolver() {
+        final Resolver<Object, Integer, Integer> first = Resolver.declare(
+            "First",
+            (List<Integer> values) -> values
+        );
+        final Resolver<Object, Integer, Integer> second = Resolver.declare(
+            "Second",
+            (List<Integer> values) -> values
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(second)
+            .withRefreshExecutor(Runnable::run)
+            .build(null);
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withTicker(time::get)
+            .withRefreshAfterWrite(Duration.ofSeconds(1))
+            .build();
+        cache.update(Results.single(first.fetch(1), 1));
+        time.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.getCached(List.single(first.fetch(1)));
+
+        assertThat(engine.resolve(second.fetch(2), cache)).isEqualTo(2);
+        assertThat(cache.drainStale()).containsExactly(first.fetch(1));
+    }
+
+    @Test
+    void resolve_shouldReportFailedRefreshes() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Resolver<Object, Integer, Integer> failing = Resolver.declare(
+            "Failing",
+            (List<Integer> values) -> {
+                if (calls.incrementAndGet() > 1) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return values;
+            }
+        );
+        final EngineMetrics metrics = new EngineMetrics();
+        final Engine engine = Engine
+            .builder()
+            .withResolver(failing)
+            .withRefreshExecutor(Runnable::run)
+            .withListener(metrics)
+            .build(null);
+        final BoundedEngineCache cache = EngineCaches
+            .bounded()
+            .withTicker(time::get)
+            .withRefreshAfterWrite(Duration.ofSeconds(1))
+            .build();
+
+        assertThat(engine.resolve(failing.fetch(1), cache)).isEqualTo(1);
+        time.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(engine.resolve(failing.fetch(1), cache)).isEqualTo(1);
+        assertThat(metrics.getRefreshes()).isEqualTo(1);
+        assertThat(metrics.getFailedRefreshes()).isEqualTo(1);
+    }
+
+    @SafeVarargs
+    private static List<Resolvable<Integer>> cached(
+        BoundedEngineCache cache,
+        Resolvable<Integer>... resolvables
+    ) {
+        final List<Resolvable<Integer>> rs = List.arrayList(resolvables);
+        final Results<Resolvable<Integer>, Integer> hits = cache.getCached(rs);
+        return rs.filter(r -> hits.get(r).isSome());
+    }
+
+    @Value
+    private static class Ref implements Resolvable<Integer> {
+        int id;
+    }
+
+    @Value
+    private static class Other implements Resolvable<Integer> {
+        int id;
+    }
+}
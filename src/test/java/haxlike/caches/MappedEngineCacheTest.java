@@ -0,0 +1,176 @@
+package haxlike.caches;
+
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.EngineCaches;
+import haxlike.Resolvable;
+import haxlike.resolvers.ListResolver;
+import haxlike.resolvers.Resolver;
+import haxlike.resolvers.Results;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MappedEngineCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void getCached_shouldReturnEntriesAfterReopening() {
+        try (MappedEngineCache cache = EngineCaches.mapped(directory).build()) {
+            cache.update(
+                Results.zip(List.list(new Ref(1), new Ref(2)), List.list(1, 2))
+            );
+            cache.update(Results.single(new Ref(1), 10));
+        }
+
+        try (MappedEngineCache cache = EngineCaches.mapped(directory).build()) {
+            final Results<Ref, Integer> hits = cache.getCached(
+                List.list(new Ref(1), new Ref(2), new Ref(3))
+            );
+
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(hits.size()).isEqualTo(2);
+            assertThat(hits.getSome(new Ref(1))).isEqualTo(10);
+            assertThat(hits.getSome(new Ref(2))).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void update_shouldRollOverToNewSegments() throws Exception {
+        try (
+            MappedEngineCache cache = EngineCaches
+                .mapped(directory)
+                .withSegmentSize(1024)
+                .build()
+        ) {
+            for (int i = 0; i < 100; i++) {
+                cache.update(Results.single(new Ref(i), i));
+            }
+        }
+
+        try (
+            MappedEngineCache cache = EngineCaches
+                .mapped(directory)
+                .withSegmentSize(1024)
+                .build()
+        ) {
+            assertThat(Files.list(directory).count()).isGreaterThan(1);
+            assertThat(cache.size()).isEqualTo(100);
+            assertThat(
+                cache.getCached(List.list(new Ref(0), new Ref(99))).size()
+            )
+                .isEqualTo(2);
+        }
+    }
+
+    @Test
+    void getCached_shouldExpireEntriesAcrossRestarts() {
+        final Instant now = Instant.parse("2020-01-01T00:00:00Z");
+        try (
+            MappedEngineCache cache = EngineCaches
+                .mapped(directory)
+                .withClock(Clock.fixed(now, ZoneOffset.UTC))
+                .build()
+        ) {
+            cache.update(Results.single(new Ref(1), 1));
+        }
+
+        try (
+            MappedEngineCache cache = EngineCaches
+                .mapped(directory)
+                .withExpireAfterWrite(Duration.ofMinutes(1))
+                .withClock(
+                    Clock.fixed(now.plusSeconds(60), ZoneOffset.UTC)
+                )
+                .build()
+        ) {
+            assertThat(cache.getCached(List.single(new Ref(1))).size())
+                .isZero();
+        }
+    }
+
+    @Test
+    void resolve_shouldReuseEntriesAcrossEngines() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Resolver<Object, Integer, Integer> counting = Resolver.declare(
+            "Counting",
+            (List<Integer> values) -> {
+                calls.incrementAndGet();
+                return values;
+            }
+        );
+
+        for (int i = 0; i < 2; i++) {
+            final Engine engine = Engine
+                .builder()
+                .withResolver(counting)
+                .build(null);
+            try (
+                MappedEngineCache cache = EngineCaches.mapped(directory).build()
+            ) {
+                assertThat(engine.resolve(counting.fetch(1), cache))
+                    .isEqualTo(1);
+            }
+        }
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void resolve_shouldNotFailForUnserializableValues() {
+        final ListResolver<Object, Integer, String> Tags = ListResolver.declare(
+            "Tags",
+            (Integer id) -> List.list("tag-" + id)
+        );
+        final Engine engine = Engine.builder().withResolver(Tags).build(null);
+
+        try (MappedEngineCache cache = EngineCaches.mapped(directory).build()) {
+            assertThat(engine.resolve(Tags.fetch(1), cache))
+                .containsExactly("tag-1");
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Test
+    void getCached_shouldMissEntriesThatCannotBeDeserialized() {
+        try (MappedEngineCache cache = EngineCaches.mapped(directory).build()) {
+            cache.update(Results.single(new Ref(1), 1));
+        }
+
+        final Serializer incompatible = new Serializer() {
+            @Override
+            public byte[] serialize(Object value) {
+                return Serializer.javaSerialization().serialize(value);
+            }
+
+            @Override
+            public Object deserialize(byte[] bytes) {
+                throw new IllegalStateException("incompatible");
+            }
+        };
+        try (
+            MappedEngineCache cache = EngineCaches
+                .mapped(directory)
+                .withSerializer(incompatible)
+                .build()
+        ) {
+            assertThat(cache.getCached(List.single(new Ref(1))).size())
+                .isZero();
+        }
+    }
+
+    @Value
+    private static class Ref implements Resolvable<Integer>, Serializable {
+        int id;
+    }
+}
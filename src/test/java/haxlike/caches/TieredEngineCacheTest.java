@@ -0,0 +1,110 @@
+package haxlike.caches;
+
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.EngineCache;
+import haxlike.EngineCaches;
+import haxlike.Resolvable;
+import haxlike.resolvers.Resolver;
+import haxlike.resolvers.Results;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+
+public class TieredEngineCacheTest {
+    private final BoundedEngineCache shared = EngineCaches.bounded().build();
+
+    @Test
+    void update_shouldOnlyShareResultsOfSharedTier() {
+        final TieredEngineCache cache = EngineCaches
+            .tiered(shared)
+            .withRequestLocal(Session.class.getName())
+            .build();
+
+        cache.update(
+            Results.zip(List.list(new Ref(1), new Session(1)), List.list(1, 2))
+        );
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(shared.size()).isEqualTo(1);
+        assertThat(cache.getCached(List.single(new Session(1))).size())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void getCached_shouldLookUpSharedCacheOncePerKey() {
+        final AtomicInteger lookups = new AtomicInteger();
+        final EngineCache counting = new EngineCache() {
+            @Override
+            public <R extends Resolvable<V>, V> Results<R, V> getCached(
+                List<R> resolvables
+            ) {
+                lookups.addAndGet(resolvables.length());
+                return shared.getCached(resolvables);
+            }
+
+            @Override
+            public <R extends Resolvable<V>, V> void update(
+                Results<R, V> results
+            ) {
+                shared.update(results);
+            }
+        };
+        shared.update(Results.single(new Ref(1), 1));
+        shared.update(Results.absent(new Ref(2)));
+        final TieredEngineCache cache = EngineCaches.tiered(counting).build();
+
+        for (int i = 0; i < 3; i++) {
+            final Results<Ref, Integer> hits = cache.getCached(
+                List.list(new Ref(1), new Ref(2))
+            );
+            assertThat(hits.getSome(new Ref(1))).isEqualTo(1);
+            assertThat(hits.isAbsent(new Ref(2))).isTrue();
+        }
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void resolve_shouldShareResultsAcrossRequests() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Resolver<Object, Integer, Integer> counting = Resolver.declare(
+            "Counting",
+            (List<Integer> values) -> {
+                calls.incrementAndGet();
+                return values;
+            }
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(counting)
+            .build(null);
+        final TieredEngineCache.Builder caches = EngineCaches.tiered(shared);
+
+        assertThat(engine.resolve(counting.fetch(1), caches.build()))
+            .isEqualTo(1);
+        assertThat(engine.resolve(counting.fetch(1), caches.build()))
+            .isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+
+        final TieredEngineCache.Builder local = caches.withDefaultTier(
+            TieredEngineCache.Tier.REQUEST
+        );
+        assertThat(engine.resolve(counting.fetch(2), local.build()))
+            .isEqualTo(2);
+        assertThat(engine.resolve(counting.fetch(2), local.build()))
+            .isEqualTo(2);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Value
+    private static class Ref implements Resolvable<Integer> {
+        int id;
+    }
+
+    @Value
+    private static class Session implements Resolvable<Integer> {
+        int id;
+    }
+}
@@ -0,0 +1,130 @@
+package haxlike.metrics;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.EngineCache;
+import haxlike.EngineCaches;
+import haxlike.TestUtil;
+import haxlike.resolvers.Resolver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EngineMetricsTest {
+    private static final Resolver<Object, Integer, Integer> Doubled = Resolver.declare(
+        "Doubled",
+        (List<Integer> values) -> values.map(v -> v * 2)
+    );
+
+    private static final Resolver<Object, Integer, Integer> Failing = Resolver.declare(
+        "Failing",
+        EngineMetricsTest::fail
+    );
+
+    private static List<Integer> fail(List<Integer> values) {
+        throw new IllegalStateException("failed");
+    }
+
+    private EngineMetrics metrics;
+    private Engine engine;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        metrics = new EngineMetrics();
+        engine =
+            Engine
+                .builder()
+                .withResolver(Doubled)
+                .withResolver(Failing)
+                .withListener(metrics)
+                .build(null);
+    }
+
+    @Test
+    void resolve_shouldRecordIterationsAndBatches() {
+        final Integer value = engine.resolve(
+            list(Doubled.fetch(1), Doubled.fetch(2))
+                .map(l -> l.foldLeft(Integer::sum, 0))
+                .flatMap(Doubled::fetch)
+        );
+
+        assertThat(value).isEqualTo(12);
+        assertThat(metrics.getResolutions()).isEqualTo(1);
+        assertThat(metrics.getIterations()).isEqualTo(2);
+        assertThat(metrics.getResolvablesPerIteration().getMax()).isEqualTo(2);
+
+        final EngineMetrics.ResolverMetrics resolver = metrics
+            .getResolver("Doubled")
+            .some();
+        assertThat(resolver.getBatchSizes().getCount()).isEqualTo(2);
+        assertThat(resolver.getBatchSizes().getMax()).isEqualTo(2);
+        assertThat(resolver.getOperationLatency().getCount()).isEqualTo(2);
+        assertThat(resolver.getFailedOperations()).isZero();
+    }
+
+    @Test
+    void resolve_shouldRecordCacheHitsAndMisses() {
+        final EngineCache cache = EngineCaches.defaultCache();
+
+        engine.resolve(Doubled.fetch(1), cache);
+        engine.resolve(list(Doubled.fetch(1), Doubled.fetch(2)), cache);
+
+        assertThat(metrics.getCacheHits()).isEqualTo(1);
+        assertThat(metrics.getCacheMisses()).isEqualTo(2);
+        assertThat(metrics.getCacheHitRatio()).isCloseTo(1.0 / 3, within(1e-9));
+    }
+
+    @Test
+    void resolve_shouldRecordFailures() {
+        assertThatThrownBy(() -> engine.resolve(Failing.fetch(1)))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(metrics.getFailedResolutions()).isEqualTo(1);
+        final EngineMetrics.ResolverMetrics resolver = metrics
+            .getResolver("Failing")
+            .some();
+        assertThat(resolver.getFailedOperations()).isEqualTo(1);
+    }
+
+    @Test
+    void resolveAsync_shouldRecordResolution() {
+        assertThat(engine.resolveAsync(Doubled.fetch(3)).join()).isEqualTo(6);
+
+        assertThat(metrics.getResolutions()).isEqualTo(1);
+        assertThat(metrics.getResolutionLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void histogram_shouldReportPercentilesWithinBucketPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1000; v++) {
+            histogram.record(v * 1000);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMax()).isEqualTo(1_000_000);
+        assertThat(histogram.getMean()).isEqualTo(500_500.0);
+        assertThat(histogram.getValueAtPercentile(50))
+            .isBetween(500_000L, 562_500L);
+        assertThat(histogram.getValueAtPercentile(99))
+            .isBetween(990_000L, 1_000_000L);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1_000_000);
+        final int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertThat(LatencyHistogram.highestValueOf(last))
+            .isEqualTo(Long.MAX_VALUE);
+    }
+}
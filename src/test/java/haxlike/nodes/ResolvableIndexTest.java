@@ -0,0 +1,130 @@
+package haxlike.nodes;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.F;
+import fj.data.HashMap;
+import fj.data.List;
+import fj.data.Option;
+import haxlike.Node;
+import haxlike.Resolvable;
+import haxlike.resolvers.Results;
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+
+public class ResolvableIndexTest {
+
+    @Test
+    void getResolvables_shouldReturnDistinctResolvables() {
+        final Node<List<Integer>> node = list(
+            new Ref(1),
+            new Ref(2).map(x -> x + 1),
+            new Ref(1)
+        );
+
+        assertThat(node.getResolvables())
+            .containsExactly(new Ref(1), new Ref(2));
+    }
+
+    @Test
+    void getResolvables_shouldKeepOrderOfManyResolvables() {
+        final List<Ref> refs = List.range(0, 1000).map(Ref::new);
+        final Node<List<Integer>> node = list(
+            refs.append(refs.reverse()).map(r -> (Node<Integer>) r)
+        );
+
+        assertThat(node.getResolvables()).containsExactlyElementsOf(refs);
+    }
+
+    @Test
+    void getResolvables_shouldIncludeAllTupleElements() {
+        final Node<?> node = tuple(value(1), value(2), value(3), new Ref(4));
+
+        assertThat(node.getResolvables()).containsExactly(new Ref(4));
+    }
+
+    @Test
+    void injectValues_shouldOnlyTouchAffectedChildren() {
+        final Node<Integer> untouched = new Ref(2).map(x -> x + 1);
+        final CollectionNode<Integer> node = new CollectionNode<>(
+            List.list(new Ref(1), untouched)
+        );
+
+        final Node<List<Integer>> injected = node.injectValues(
+            Results.single(new Ref(1), 1)
+        );
+
+        assertThat(injected).isInstanceOf(CollectionNode.class);
+        assertThat(((CollectionNode<Integer>) injected).getChildNodes())
+            .element(1)
+            .isSameAs(untouched);
+        assertThat(injected.getResolvables()).containsExactly(new Ref(2));
+    }
+
+    @Test
+    void injectValues_shouldReturnSameNodeIfUnaffected() {
+        final Node<List<Integer>> node = new CollectionNode<>(
+            List.list(new Ref(1), new Ref(2))
+        );
+
+        assertThat(node.injectValues(Results.single(new Ref(3), 3)))
+            .isSameAs(node);
+    }
+
+    @Test
+    void injectValues_shouldReturnSameNodeThroughMapAndFlatMap() {
+        final Node<Integer> node = new Ref(1)
+            .map(x -> x + 1)
+            .flatMap(x -> new Ref(x));
+
+        assertThat(node.injectValues(Results.single(new Ref(3), 3)))
+            .isSameAs(node);
+    }
+
+    @Test
+    void affectedChildren_shouldSkipLookupsIfKeyMaskDoesNotMatch() {
+        final ResolvableIndex index = ResolvableIndex.of(
+            List.list(new Ref(1), new Ref(2))
+        );
+        final Results<Resolvable<?>, Object> results = new Results<>() {
+            @Override
+            public Option<Object> get(Resolvable<?> resolvable) {
+                throw new AssertionError("Unexpected lookup: " + resolvable);
+            }
+
+            @Override
+            public long getKeyMask() {
+                return 0L;
+            }
+
+            @Override
+            public <T> Results<T, Object> mapKeys(F<Resolvable<?>, T> f) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void into(HashMap<Resolvable<?>, Object> target) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        assertThat(index.affectedChildren(results).isEmpty()).isTrue();
+    }
+
+    @Test
+    void getKeyMask_shouldContainBitsOfAllKeys() {
+        final Results<Ref, Integer> results = Results.zip(
+            List.list(new Ref(1), new Ref(2)),
+            List.list(1, 2)
+        );
+
+        assertThat(results.getKeyMask())
+            .isEqualTo(Results.keyBit(new Ref(1)) | Results.keyBit(new Ref(2)));
+    }
+
+    @Value
+    private static class Ref implements Resolvable<Integer> {
+        int id;
+    }
+}
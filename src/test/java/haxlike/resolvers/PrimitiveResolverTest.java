@@ -0,0 +1,125 @@
+package haxlike.resolvers;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.TestUtil;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.Value;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveResolverTest {
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @Value
+    static class User {
+        int id;
+        String name;
+    }
+
+    @Test
+    void resolve_shouldPassBatchesAsPrimitiveArrays() {
+        final java.util.List<long[]> batches = new CopyOnWriteArrayList<>();
+        final LongResolver<Object, Long> Doubled = Resolver.declareLong(
+            "Doubled",
+            (long[] ids) -> {
+                batches.add(ids);
+                List<Long> doubled = List.nil();
+                for (int i = ids.length - 1; i >= 0; i--) {
+                    doubled = doubled.cons(ids[i] * 2);
+                }
+                return doubled;
+            }
+        );
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Doubled)
+            .build(null);
+
+        final List<Long> result = engine.resolve(
+            list(Doubled.fetch(1), Doubled.fetch(2), Doubled.fetch(1))
+        );
+
+        assertThat(result).containsExactly(2L, 4L, 2L);
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void resolve_shouldMatchResultsById() {
+        final IntResolver<Object, User> Users = Resolver.declareInt(
+            "User",
+            (int[] ids) ->
+                LongResults.match(
+                    ids,
+                    List.list(new User(2, "b"), new User(1, "a")),
+                    User::getId
+                )
+        );
+        final Engine engine = Engine.builder().withResolver(Users).build(null);
+
+        final List<String> names = engine.resolve(
+            list(Users.fetch(1), Users.fetch(2)).mapEach(User::getName)
+        );
+
+        assertThat(names).containsExactly("a", "b");
+    }
+
+    @Test
+    void withMaxBatchSize_shouldSplitBatches() {
+        final java.util.List<Integer> sizes = new CopyOnWriteArrayList<>();
+        final IntResolver<Object, Integer> Negated = Resolver
+            .declareInt(
+                "Negated",
+                (int[] ids) -> {
+                    sizes.add(ids.length);
+                    final LongResults<Integer> results = new LongResults<>();
+                    for (int id : ids) {
+                        results.put(id, -id);
+                    }
+                    return results;
+                }
+            )
+            .withMaxBatchSize(2);
+        final Engine engine = Engine
+            .builder()
+            .withResolver(Negated)
+            .build(null);
+
+        final List<Integer> result = engine.resolve(
+            list(Negated.fetch(1), Negated.fetch(2), Negated.fetch(3))
+        );
+
+        assertThat(result).containsExactly(-1, -2, -3);
+        assertThat(sizes).containsExactlyInAnyOrder(2, 1);
+    }
+
+    @Test
+    void longResults_shouldGrowAndKeepAllValues() {
+        final LongResults<Long> results = new LongResults<>();
+        for (long id = -500; id < 500; id++) {
+            results.put(id * 1024, id);
+        }
+        results.put(0, 42L);
+
+        assertThat(results.size()).isEqualTo(1000);
+        assertThat(results.get(-500 * 1024)).isEqualTo(-500L);
+        assertThat(results.get(499 * 1024)).isEqualTo(499L);
+        assertThat(results.get(0)).isEqualTo(42L);
+        assertThat(results.contains(1)).isFalse();
+        assertThat(results.get(1)).isNull();
+    }
+}
@@ -0,0 +1,112 @@
+package haxlike.resolvers;
+
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.HashMap;
+import fj.data.List;
+import fj.data.Option;
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+
+public class ResultsTest {
+
+    @Value
+    static class Ref {
+        String name;
+        int id;
+    }
+
+    @Test
+    void match_shouldLookUpResultsByReference() {
+        final Results<Integer, String> results = Results.match(
+            List.list(3, 1, 2, 1),
+            List.list("1", "2", "4"),
+            Integer::parseInt
+        );
+
+        assertThat(results.size()).isEqualTo(3);
+        assertThat(results.get(1)).isEqualTo(Option.some("1"));
+        assertThat(results.get(2)).isEqualTo(Option.some("2"));
+        assertThat(results.get(3).isNone()).isTrue();
+        assertThat(results.get(4).isNone()).isTrue();
+    }
+
+    @Test
+    void match_shouldAssignResultsToAllResolvablesSharingAnId() {
+        final Ref a = new Ref("a", 1);
+        final Ref b = new Ref("b", 1);
+        final Ref c = new Ref("c", 2);
+
+        final Results<Ref, String> results = Results.match(
+            List.list(a, b, c),
+            Ref::getId,
+            List.list("1"),
+            Integer::parseInt,
+            "none"
+        );
+
+        assertThat(results.getSome(a)).isEqualTo("1");
+        assertThat(results.getSome(b)).isEqualTo("1");
+        assertThat(results.getSome(c)).isEqualTo("none");
+    }
+
+    @Test
+    void match_shouldMarkUnmatchedResolvablesAbsent() {
+        final Ref a = new Ref("a", 1);
+        final Ref b = new Ref("b", 2);
+
+        final Results<Ref, String> results = Results.match(
+            List.list(a, b),
+            Ref::getId,
+            List.list("1"),
+            Integer::parseInt,
+            null
+        );
+
+        assertThat(results.contains(b)).isTrue();
+        assertThat(results.isAbsent(a)).isFalse();
+        assertThat(results.isAbsent(b)).isTrue();
+        assertThat(results.contains(new Ref("c", 3))).isFalse();
+    }
+
+    @Test
+    void zip_shouldKeepLastValueOfDuplicates() {
+        final Results<String, Integer> results = Results.zip(
+            List.list("a", "b", "a"),
+            List.list(1, 2, 3)
+        );
+        final HashMap<String, Integer> copy = HashMap.hashMap();
+        results.into(copy);
+
+        assertThat(results.size()).isEqualTo(2);
+        assertThat(results.getSome("a")).isEqualTo(3);
+        assertThat(copy.keys()).containsExactlyInAnyOrder("a", "b");
+        assertThat(results.getKeyMask())
+            .isEqualTo(Results.keyBit("a") | Results.keyBit("b"));
+    }
+
+    @Test
+    void zip_shouldIgnoreResolvablesWithoutValues() {
+        final Results<String, Integer> results = Results.zip(
+            List.list("a", "b", "c"),
+            List.list(1)
+        );
+
+        assertThat(results.size()).isEqualTo(1);
+        assertThat(results.getSome("a")).isEqualTo(1);
+        assertThat(results.contains("b")).isFalse();
+        assertThat(results.isAbsent("c")).isFalse();
+        assertThat(results.getKeyMask()).isEqualTo(Results.keyBit("a"));
+    }
+
+    @Test
+    void mapKeys_shouldMergeKeysMappedToTheSameValue() {
+        final Results<Integer, Integer> results = Results
+            .zip(List.list(1, 2, 3), List.list(10, 20, 30))
+            .mapKeys(i -> i % 2);
+
+        assertThat(results.size()).isEqualTo(2);
+        assertThat(results.getSome(0)).isEqualTo(20);
+        assertThat(results.get(1).isSome()).isTrue();
+    }
+}
@@ -0,0 +1,108 @@
+package haxlike.strategies;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.Node;
+import haxlike.SelectionStrategies;
+import haxlike.TestUtil;
+import haxlike.resolvers.Resolver;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveSelectionStrategyTest {
+    private java.util.List<String> calls;
+    private AdaptiveSelectionStrategy strategy;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        calls = new CopyOnWriteArrayList<>();
+        strategy = SelectionStrategies.adaptive();
+    }
+
+    private Resolver<Object, Integer, Integer> resolver(
+        String key,
+        long millis
+    ) {
+        return Resolver.declare(
+            key,
+            (List<Integer> ids) -> {
+                calls.add(key);
+                sleep(millis);
+                return ids.map(id -> id + 100);
+            }
+        );
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> resolveWarm(
+        Resolver<Object, Integer, Integer> users,
+        Resolver<Object, Integer, Integer> posts
+    ) {
+        final Engine engine = Engine
+            .builder()
+            .withResolver(users)
+            .withResolver(posts)
+            .withSelectionStrategy(strategy)
+            .build(null);
+        for (int i = 1; i <= 12; i++) {
+            engine.resolve(postsOfUser(users, posts, i * 1000));
+        }
+        calls.clear();
+        engine.resolve(postsOfUser(users, posts, 1));
+        return List.iterableList(calls);
+    }
+
+    private static Node<List<Integer>> postsOfUser(
+        Resolver<Object, Integer, Integer> users,
+        Resolver<Object, Integer, Integer> posts,
+        int seed
+    ) {
+        return list(posts.fetch(seed), users.fetch(seed).flatMap(posts::fetch));
+    }
+
+    @Test
+    void select_shouldDeferSlowRecurringResolvers() {
+        final List<String> calls = resolveWarm(
+            resolver("Users", 0),
+            resolver("Posts", 10)
+        );
+
+        assertThat(calls).containsExactly("Users", "Posts");
+        assertThat(strategy.getStats("Posts").getRecurrence()).isEqualTo(1.0);
+        assertThat(strategy.getStats("Posts").getLatency(1))
+            .isGreaterThan(strategy.getStats("Users").getLatency(1));
+    }
+
+    @Test
+    void select_shouldNotDeferFastResolversRunningNextToSlowOnes() {
+        final List<String> calls = resolveWarm(
+            resolver("Users", 10),
+            resolver("Posts", 0)
+        );
+
+        assertThat(calls).containsExactlyInAnyOrder("Users", "Posts", "Posts");
+    }
+}
@@ -0,0 +1,103 @@
+package haxlike.strategies;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.Node;
+import haxlike.SelectionStrategies;
+import haxlike.TestUtil;
+import haxlike.resolvers.Resolver;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CostBasedSelectionStrategyTest {
+    private java.util.List<String> calls;
+    private Resolver<Object, Integer, Integer> Users;
+    private Resolver<Object, Integer, String> Posts;
+    private Engine engine;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        calls = new CopyOnWriteArrayList<>();
+        Users =
+            Resolver.declare(
+                "Users",
+                (List<Integer> ids) -> {
+                    calls.add("Users");
+                    return ids.map(id -> id + 100);
+                }
+            );
+        Posts =
+            Resolver.declare(
+                "Posts",
+                (List<Integer> ids) -> {
+                    calls.add("Posts");
+                    return ids.map(id -> "post-" + id);
+                }
+            );
+        engine =
+            Engine
+                .builder()
+                .withResolver(Users)
+                .withResolver(Posts)
+                .withSelectionStrategy(
+                    SelectionStrategies.costBasedStrategy()
+                )
+                .build(null);
+    }
+
+    private Node<List<String>> postsOfUser(int seed) {
+        return list(
+            Posts.fetch(seed),
+            Users.fetch(seed).flatMap(Posts::fetch)
+        );
+    }
+
+    private List<String> resolveWarm(Node<List<String>> node) {
+        for (int i = 0; i < 20; i++) {
+            engine.resolve(postsOfUser(i * 1000));
+        }
+        calls.clear();
+        return engine.resolve(node);
+    }
+
+    @Test
+    void select_shouldDeferRecurringResolvers() {
+        final List<String> posts = resolveWarm(postsOfUser(1));
+
+        assertThat(posts).containsExactly("post-1", "post-101");
+        assertThat(calls).containsExactly("Users", "Posts");
+    }
+
+    @Test
+    void select_shouldNotDeferNonRecurringResolvers() {
+        final List<String> posts = resolveWarm(
+            list(Posts.fetch(1), Users.fetch(1).map(id -> "user-" + id))
+        );
+
+        assertThat(posts).containsExactly("post-1", "user-101");
+        assertThat(calls).containsExactlyInAnyOrder("Users", "Posts");
+    }
+
+    @Test
+    void select_shouldSelectAllBatchesWithoutStatistics() {
+        engine.resolve(postsOfUser(1));
+
+        assertThat(calls).containsExactlyInAnyOrder("Users", "Posts", "Posts");
+    }
+}
@@ -0,0 +1,118 @@
+package haxlike.strategies;
+
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.ResolutionStrategies;
+import haxlike.ResolutionStrategy;
+import haxlike.resolvers.Operation;
+import haxlike.resolvers.Results;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class StructuredResolutionStrategyTest {
+
+    private static Operation<Integer, Integer> op(int i, Runnable body) {
+        return () -> {
+            body.run();
+            return Results.single(i, i);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted.", e);
+        }
+    }
+
+    @Test
+    void run_shouldRunOperationsConcurrently() {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final Runnable body = () -> {
+            latch.countDown();
+            await(latch);
+        };
+
+        final List<Results<Integer, Integer>> results = ResolutionStrategies
+            .virtualThreads()
+            .run(List.list(op(1, body), op(2, body)));
+
+        assertThat(results.head().getSome(1)).isEqualTo(1);
+        assertThat(results.last().getSome(2)).isEqualTo(2);
+    }
+
+    @Test
+    void run_shouldCancelRemainingOperationsOnFailure() {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final Runnable slow = () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        };
+        final Runnable failing = () -> {
+            await(started);
+            throw new IllegalArgumentException("failed");
+        };
+        final ResolutionStrategy strategy = ResolutionStrategies
+            .virtualThreads();
+
+        assertThatThrownBy(
+                () -> strategy.run(List.list(op(1, slow), op(2, failing)))
+            )
+            .isInstanceOf(IllegalArgumentException.class);
+        await(interrupted);
+    }
+
+    @Test
+    void run_shouldFailIfDeadlineIsExceeded() {
+        final Runnable slow = () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        final ResolutionStrategy strategy = ResolutionStrategies.virtualThreads(
+            Duration.ofMillis(50)
+        );
+
+        assertThatThrownBy(() -> strategy.run(List.single(op(1, slow))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("deadline");
+    }
+
+    @Test
+    void runAsync_shouldFailIfTheExecutorRejectsOperations() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        final CompletableFuture<Results<Integer, Integer>> pending = new CompletableFuture<>();
+        final Operation<Integer, Integer> async = Operation.async(
+            () -> pending
+        );
+        final ResolutionStrategy strategy = new StructuredResolutionStrategy(
+            executor,
+            null
+        );
+
+        assertThatThrownBy(
+                strategy.runAsync(List.list(async, op(1, () -> {})))::join
+            )
+            .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(pending).isCancelled();
+    }
+}
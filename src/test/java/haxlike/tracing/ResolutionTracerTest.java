@@ -0,0 +1,103 @@
+package haxlike.tracing;
+
+import static haxlike.Nodes.*;
+import static org.assertj.core.api.Assertions.*;
+
+import fj.data.List;
+import haxlike.Engine;
+import haxlike.TestUtil;
+import haxlike.resolvers.Resolver;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ResolutionTracerTest {
+    private static final Resolver<Object, Integer, Integer> Increment = Resolver.declare(
+        "Increment",
+        (List<Integer> values) -> values.map(v -> v + 1)
+    );
+
+    private java.util.List<ResolutionTrace> traces;
+
+    @BeforeAll
+    static void setUpAll() {
+        TestUtil.setTraceLogging();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        TestUtil.resetLogging();
+    }
+
+    @BeforeEach
+    void setUp() {
+        traces = new CopyOnWriteArrayList<>();
+    }
+
+    private Engine engine(double sampleRate) {
+        return Engine
+            .builder()
+            .withResolver(Increment)
+            .withTracing(sampleRate, traces::add)
+            .build(null);
+    }
+
+    @Test
+    void resolve_shouldRecordIterationsAndOperations() {
+        engine(1)
+            .resolve(
+                list(Increment.fetch(1), Increment.fetch(2))
+                    .flatMap(l -> Increment.fetch(l.head() * 10))
+            );
+
+        assertThat(traces).hasSize(1);
+        final ResolutionTrace trace = traces.get(0);
+        assertThat(trace.getError()).isNull();
+        assertThat(trace.getIterations().map(i -> i.getResolvables()))
+            .containsExactly(2, 1);
+        assertThat(trace.getIterations().head().getBatches())
+            .containsExactly(new ResolutionTrace.Batch("Increment", 2));
+        assertThat(trace.getOperations().map(op -> op.getResultCount()))
+            .containsExactly(2, 1);
+        assertThat(trace.getOperations().head().getThreadName())
+            .isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void resolve_shouldExportTrace() {
+        engine(1).resolve(Increment.fetch(1));
+
+        final ResolutionTrace trace = traces.get(0);
+        assertThat(trace.toChromeTrace())
+            .startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[")
+            .contains("\"name\":\"iteration #1\"")
+            .contains("\"name\":\"Increment\",\"cat\":\"operation\"")
+            .endsWith("]}");
+        assertThat(trace.toCollapsedStacks())
+            .matches("(?s)(resolution;iteration #1(;Increment)? \\d+\n)*");
+    }
+
+    @Test
+    void resolve_shouldOnlyTraceSampledResolutions() {
+        final Engine engine = engine(0);
+        engine.resolve(Increment.fetch(1));
+        engine.resolveAsync(Increment.fetch(1)).join();
+
+        assertThat(traces).isEmpty();
+    }
+
+    @Test
+    void resolveAsync_shouldRecordFailures() {
+        final Engine engine = Engine
+            .builder()
+            .withTracing(1, traces::add)
+            .build(null);
+
+        assertThatThrownBy(() -> engine.resolveAsync(Increment.fetch(1)).join())
+            .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(traces).hasSize(1);
+        assertThat(traces.get(0).getError()).contains("No resolver");
+    }
+}